@@ -0,0 +1,37 @@
+#!/usr/bin/env bash
+# Compares throughput and tail latency of platform-thread and virtual-thread request handling.
+#
+# Needs a Java 21 JDK, wrk (https://github.com/wg/wrk) and the MySQL database from application.properties
+# seeded with data. Usage: scripts/load-test.sh [connections] [duration]
+set -euo pipefail
+
+CONNECTIONS=${1:-400}
+DURATION=${2:-60s}
+PORT=8080
+BASE="http://localhost:${PORT}"
+JAR=target/ecommerce-0.0.1-SNAPSHOT.jar
+PATHS=("/api/products?page=0&size=20" "/api/products/1" "/api/categories?page=0&size=20")
+
+cd "$(dirname "$0")/.."
+./mvnw -q -B -Pjava21 -DskipTests package
+
+run_mode() {
+    local mode=$1 profiles=$2
+    java -jar "$JAR" --server.port="$PORT" --spring.profiles.active="$profiles" --debug=false \
+        > "target/load-test-${mode}.log" 2>&1 &
+    local pid=$!
+    trap "kill $pid 2>/dev/null || true" RETURN
+
+    until curl -sf -o /dev/null "${BASE}/api/categories"; do sleep 1; done
+    # Warm up JIT and connection pool before measuring.
+    wrk -t4 -c50 -d15s "${BASE}${PATHS[0]}" > /dev/null
+
+    for path in "${PATHS[@]}"; do
+        echo "== ${mode} ${path} (${CONNECTIONS} connections, ${DURATION})"
+        wrk -t8 -c"$CONNECTIONS" -d"$DURATION" --latency "${BASE}${path}" \
+            | grep -E "Requests/sec|Non-2xx|Socket errors|^ +(50|90|99)%"
+    done
+}
+
+run_mode platform default
+run_mode virtual virtual-threads
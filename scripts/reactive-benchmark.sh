@@ -0,0 +1,45 @@
+#!/usr/bin/env bash
+# Compares throughput and tail latency of the servlet API and its WebFlux/R2DBC variant on the same database.
+#
+# Needs wrk (https://github.com/wg/wrk) and the MySQL database from application.properties seeded with data.
+# Usage: scripts/reactive-benchmark.sh [connections] [duration]
+set -euo pipefail
+
+CONNECTIONS=${1:-400}
+DURATION=${2:-60s}
+JAR=target/ecommerce-0.0.1-SNAPSHOT.jar
+PATHS=("/api/products?page=0&size=20" "/api/products/1" "/api/categories?page=0&size=20")
+
+cd "$(dirname "$0")/.."
+./mvnw -q -B -DskipTests package
+
+run_stack() {
+    local stack=$1 port=$2
+    shift 2
+    java "$@" --server.port="$port" --debug=false > "target/benchmark-${stack}.log" 2>&1 &
+    local pid=$!
+    trap "kill $pid 2>/dev/null || true" RETURN
+
+    local base="http://localhost:${port}"
+    until curl -sf -o /dev/null "${base}/api/categories"; do sleep 1; done
+    # Warm up JIT and connection pool before measuring.
+    wrk -t4 -c50 -d15s "${base}${PATHS[0]}" > /dev/null
+
+    for path in "${PATHS[@]}"; do
+        echo "== ${stack} ${path} (${CONNECTIONS} connections, ${DURATION})"
+        wrk -t8 -c"$CONNECTIONS" -d"$DURATION" --latency "${base}${path}" \
+            | grep -E "Requests/sec|Non-2xx|Socket errors|^ +(50|90|99)%"
+    done
+
+    # Streaming the whole catalog: time to last byte for a single client.
+    echo "== ${stack} full catalog"
+    if [ "$stack" = reactive ]; then
+        curl -s -o /dev/null -w "%{time_total}s %{size_download} bytes\n" -H "Accept: application/x-ndjson" "${base}/api/products"
+    else
+        curl -s -o /dev/null -w "%{time_total}s %{size_download} bytes\n" "${base}/api/products/export"
+    fi
+}
+
+run_stack servlet 8080 -jar "$JAR"
+run_stack reactive 8081 -cp "$JAR" -Dloader.main=com.ecommerce.reactive.ReactiveEcommerceApplication \
+    org.springframework.boot.loader.launch.PropertiesLauncher
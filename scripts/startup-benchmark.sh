@@ -0,0 +1,43 @@
+#!/usr/bin/env bash
+# Measures time to first request: from launching the JVM until GET /api/products first answers 200.
+# Compares the default boot, the prod profile, and the prod profile with Spring AOT and a CDS archive.
+#
+# Needs the MySQL database from application.properties with its schema in place (prod only validates it).
+# Usage: scripts/startup-benchmark.sh [runs]
+set -euo pipefail
+
+RUNS=${1:-5}
+PORT=8080
+URL="http://localhost:${PORT}/api/products?page=0&size=20"
+JAR=target/ecommerce-0.0.1-SNAPSHOT.jar
+APP=target/app/ecommerce-0.0.1-SNAPSHOT.jar
+
+cd "$(dirname "$0")/.."
+./mvnw -q -B -Pstartup -DskipTests package
+
+run_mode() {
+    local mode=$1
+    shift
+    local times=()
+    for run in $(seq "$RUNS"); do
+        local start
+        start=$(date +%s%N)
+        java "$@" --server.port="$PORT" --debug=false > "target/startup-${mode}-${run}.log" 2>&1 &
+        local pid=$!
+        until curl -sf -o /dev/null "$URL"; do
+            kill -0 "$pid" 2>/dev/null || { echo "${mode} exited, see target/startup-${mode}-${run}.log"; exit 1; }
+            sleep 0.05
+        done
+        times+=($(( ($(date +%s%N) - start) / 1000000 )))
+        kill "$pid"
+        wait "$pid" 2>/dev/null || true
+    done
+    local sorted
+    sorted=($(printf '%s\n' "${times[@]}" | sort -n))
+    echo "== ${mode}: median $(( sorted[RUNS / 2] )) ms to first request (runs: ${times[*]} ms)"
+}
+
+run_mode default -jar "$JAR"
+run_mode prod -jar "$APP" --spring.profiles.active=prod
+run_mode prod-aot-cds -XX:SharedArchiveFile=target/app/application.jsa -Xlog:cds=off -Dspring.aot.enabled=true \
+    -jar "$APP" --spring.profiles.active=prod
@@ -0,0 +1,105 @@
+package com.ecommerce.dto;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.config.EnableSpringDataWebSupport.PageSerializationMode;
+import org.springframework.data.web.config.SpringDataJacksonConfiguration.PageModule;
+import org.springframework.data.web.config.SpringDataWebSettings;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.ecommerce.entity.Product;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * JSON cost of the product endpoints, with an ObjectMapper configured like the
+ * application's (Boot defaults plus the VIA_DTO page module from WebConfig).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+	private ObjectWriter productWriter;
+	private ObjectReader productRequestReader;
+
+	private ProductDTO product;
+	private byte[] productRequest;
+
+	@State(Scope.Benchmark)
+	public static class PageState {
+		@Param({ "3", "50" })
+		public int pageSize;
+
+		private ObjectWriter pageWriter;
+		private Page<ProductDTO> page;
+
+		@Setup
+		public void setUp() {
+			pageWriter = objectMapper().writer();
+			List<ProductDTO> content = new ArrayList<>();
+			for (int i = 0; i < pageSize; i++) {
+				content.add(sampleProduct(i));
+			}
+			page = new PageImpl<>(content, PageRequest.of(0, pageSize), 10_000);
+		}
+	}
+
+	@Setup
+	public void setUp() {
+		ObjectMapper objectMapper = objectMapper();
+		productWriter = objectMapper.writerFor(ProductDTO.class);
+		productRequestReader = objectMapper.readerFor(Product.class);
+
+		product = sampleProduct(1);
+		productRequest = ("{\"name\":\"Smartphone\",\"description\":\"Latest model\",\"price\":299.99,"
+				+ "\"quantity\":50,\"status\":\"Available\",\"category\":{\"id\":10}}").getBytes();
+	}
+
+	@Benchmark
+	public byte[] serializeProduct() throws Exception {
+		return productWriter.writeValueAsBytes(product);
+	}
+
+	@Benchmark
+	public byte[] serializePage(PageState state) throws Exception {
+		return state.pageWriter.writeValueAsBytes(state.page);
+	}
+
+	@Benchmark
+	public Product deserializeProductRequest() throws Exception {
+		return productRequestReader.readValue(productRequest);
+	}
+
+	static ObjectMapper objectMapper() {
+		return Jackson2ObjectMapperBuilder.json()
+				.modulesToInstall(new PageModule(new SpringDataWebSettings(PageSerializationMode.VIA_DTO)))
+				.build();
+	}
+
+	static ProductDTO sampleProduct(long id) {
+		return new ProductDTO(id, "Smartphone " + id, "Latest model with a large display and a long-lasting battery",
+				299.99, "Available", 50, 3L, Instant.parse("2024-12-01T10:15:30Z"), 7L, "Electronics");
+	}
+}
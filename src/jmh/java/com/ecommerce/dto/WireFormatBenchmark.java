@@ -0,0 +1,93 @@
+package com.ecommerce.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.config.EnableSpringDataWebSupport.PageSerializationMode;
+import org.springframework.data.web.config.SpringDataJacksonConfiguration.PageModule;
+import org.springframework.data.web.config.SpringDataWebSettings;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Encode and decode cost of a product page in each negotiable response
+ * format. The encoded size of each page is printed at the end of a trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+
+	@Param({ "json", "smile", "cbor" })
+	public String format;
+
+	@Param({ "3", "50" })
+	public int pageSize;
+
+	private ObjectWriter pageWriter;
+	private ObjectReader pageReader;
+	private Page<ProductDTO> page;
+	private byte[] encodedPage;
+
+	@Setup
+	public void setUp() throws Exception {
+		Jackson2ObjectMapperBuilder builder = switch (format) {
+		case "json" -> Jackson2ObjectMapperBuilder.json();
+		case "smile" -> Jackson2ObjectMapperBuilder.smile();
+		case "cbor" -> Jackson2ObjectMapperBuilder.cbor();
+		default -> throw new IllegalArgumentException(format);
+		};
+		ObjectMapper objectMapper = builder
+				.modulesToInstall(new PageModule(new SpringDataWebSettings(PageSerializationMode.VIA_DTO)))
+				.build();
+		pageWriter = objectMapper.writer();
+		// Clients read pages generically; there is no concrete type to bind the VIA_DTO shape to.
+		pageReader = objectMapper.readerFor(JsonNode.class);
+
+		List<ProductDTO> content = new ArrayList<>();
+		for (int i = 0; i < pageSize; i++) {
+			content.add(JsonSerializationBenchmark.sampleProduct(i));
+		}
+		page = new PageImpl<>(content, PageRequest.of(0, pageSize), 10_000);
+		encodedPage = pageWriter.writeValueAsBytes(page);
+	}
+
+	@TearDown(Level.Trial)
+	public void printSize() {
+		System.out.printf("%n%s page of %d: %d bytes%n", format, pageSize, encodedPage.length);
+	}
+
+	@Benchmark
+	public byte[] serializePage() throws Exception {
+		return pageWriter.writeValueAsBytes(page);
+	}
+
+	@Benchmark
+	public JsonNode deserializePage() throws Exception {
+		return pageReader.readValue(encodedPage);
+	}
+}
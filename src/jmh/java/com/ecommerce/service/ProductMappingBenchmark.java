@@ -0,0 +1,56 @@
+package com.ecommerce.service;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.entity.Category;
+import com.ecommerce.entity.Product;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductMappingBenchmark {
+
+	private ProductService productService;
+	private Product product;
+
+	@Setup
+	public void setUp() {
+		productService = new ProductService();
+
+		Category category = new Category();
+		category.setId(7L);
+		category.setName("Electronics");
+
+		product = new Product();
+		product.setId(42L);
+		product.setName("Smartphone");
+		product.setDescription("Latest model with a large display and a long-lasting battery");
+		product.setPrice(299.99);
+		product.setQuantity(50);
+		product.setStatus("Available");
+		product.setVersion(3L);
+		product.setUpdatedAt(Instant.parse("2024-12-01T10:15:30Z"));
+		product.setCategory(category);
+	}
+
+	@Benchmark
+	public ProductDTO mapToDTO() {
+		return productService.mapToDTO(product);
+	}
+}
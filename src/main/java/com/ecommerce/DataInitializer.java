@@ -2,6 +2,7 @@ package com.ecommerce;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
 import com.ecommerce.entity.Category;
@@ -11,7 +12,12 @@ import com.ecommerce.repo.ProductRepo;
 
 import java.util.Scanner;
 
+/**
+ * Interactive product console on stdin. It blocks startup until "Exit" is
+ * chosen, so it only runs with the {@code console} profile.
+ */
 @Component
+@Profile("console")
 public class DataInitializer implements CommandLineRunner {
 
     @Autowired
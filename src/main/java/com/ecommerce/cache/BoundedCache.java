@@ -0,0 +1,208 @@
+package com.ecommerce.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * Small in-process LRU cache bounded both by entry count and by total weight,
+ * with a per-entry time-to-live.
+ */
+public class BoundedCache<K, V> {
+
+    private final int maxEntries;
+    private final long maxWeight;
+    private final long ttlNanos;
+    private final ToLongFunction<V> weigher;
+    private final LongSupplier nanoClock;
+
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalWeight;
+    // Bumped on every invalidation so a value loaded before a concurrent write is not cached afterwards.
+    private long invalidationStamp;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    public BoundedCache(int maxEntries, long maxWeight, Duration ttl, ToLongFunction<V> weigher) {
+        this(maxEntries, maxWeight, ttl, weigher, System::nanoTime);
+    }
+
+    BoundedCache(int maxEntries, long maxWeight, Duration ttl, ToLongFunction<V> weigher, LongSupplier nanoClock) {
+        if (maxEntries <= 0 || maxWeight <= 0) {
+            throw new IllegalArgumentException("Cache bounds must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+        this.ttlNanos = ttl.toNanos();
+        this.weigher = weigher;
+        this.nanoClock = nanoClock;
+    }
+
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null && nanoClock.getAsLong() - entry.createdAt >= ttlNanos) {
+            remove(key);
+            expirations.incrementAndGet();
+            entry = null;
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.value;
+    }
+
+    /**
+     * Read-through lookup. The loader runs outside the cache lock; a {@code null}
+     * result is returned as is and not cached.
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V value = get(key);
+        if (value != null) {
+            return value;
+        }
+        long stamp;
+        synchronized (this) {
+            stamp = invalidationStamp;
+        }
+        value = loader.apply(key);
+        if (value != null) {
+            synchronized (this) {
+                if (stamp == invalidationStamp) {
+                    put(key, value);
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Bulk read-through lookup: the keys not cached are passed to the loader in
+     * a single call, outside the cache lock. Keys the loader does not return
+     * are absent from the result.
+     */
+    public Map<K, V> getAll(Collection<? extends K> keys, Function<? super Set<K>, ? extends Map<K, ? extends V>> loader) {
+        Map<K, V> result = new HashMap<>();
+        Set<K> missing = new LinkedHashSet<>();
+        long stamp;
+        synchronized (this) {
+            for (K key : keys) {
+                V value = get(key);
+                if (value != null) {
+                    result.put(key, value);
+                } else {
+                    missing.add(key);
+                }
+            }
+            stamp = invalidationStamp;
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+        Map<K, ? extends V> loaded = loader.apply(missing);
+        synchronized (this) {
+            if (stamp == invalidationStamp) {
+                loaded.forEach(this::put);
+            }
+        }
+        result.putAll(loaded);
+        return result;
+    }
+
+    public synchronized void put(K key, V value) {
+        long weight = weigher.applyAsLong(value);
+        if (weight > maxWeight) {
+            return;
+        }
+        remove(key);
+        entries.put(key, new Entry<>(value, weight, nanoClock.getAsLong()));
+        totalWeight += weight;
+        evictIfNeeded();
+    }
+
+    public synchronized void invalidate(K key) {
+        invalidationStamp++;
+        remove(key);
+    }
+
+    public synchronized void invalidateIf(Predicate<? super V> predicate) {
+        invalidationStamp++;
+        Iterator<Entry<V>> values = entries.values().iterator();
+        while (values.hasNext()) {
+            Entry<V> entry = values.next();
+            if (predicate.test(entry.value)) {
+                totalWeight -= entry.weight;
+                values.remove();
+            }
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        invalidationStamp++;
+        entries.clear();
+        totalWeight = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long weight() {
+        return totalWeight;
+    }
+
+    public CacheStats stats() {
+        int size;
+        long weight;
+        synchronized (this) {
+            size = entries.size();
+            weight = totalWeight;
+        }
+        return new CacheStats(hits.get(), misses.get(), evictions.get(), expirations.get(), size, weight);
+    }
+
+    private void remove(K key) {
+        Entry<V> removed = entries.remove(key);
+        if (removed != null) {
+            totalWeight -= removed.weight;
+        }
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || totalWeight > maxWeight) && eldest.hasNext()) {
+            totalWeight -= eldest.next().getValue().weight;
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long weight;
+        private final long createdAt;
+
+        private Entry(V value, long weight, long createdAt) {
+            this.value = value;
+            this.weight = weight;
+            this.createdAt = createdAt;
+        }
+    }
+
+    public record CacheStats(long hits, long misses, long evictions, long expirations, int size, long weight) {
+    }
+}
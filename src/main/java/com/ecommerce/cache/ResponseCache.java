@@ -0,0 +1,97 @@
+package com.ecommerce.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Fully rendered response bodies of hot list pages, stored both as is and
+ * gzip-compressed, so a hit is written to the socket without running the
+ * query, the mapping, Jackson or the compressor. Any product or category
+ * write clears it.
+ */
+public class ResponseCache {
+
+    private final BoundedCache<String, CachedResponse> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong bypasses = new AtomicLong();
+    // Rendering and compression time that hits did not have to spend again.
+    private final AtomicLong savedNanos = new AtomicLong();
+
+    public ResponseCache(int maxEntries, long maxWeightBytes, Duration ttl) {
+        this.entries = new BoundedCache<>(maxEntries, maxWeightBytes, ttl,
+                response -> response.body().length + response.gzipBody().length + 64L);
+    }
+
+    /** A cached response, counting the work it saves, or {@code null}. */
+    public CachedResponse get(String key, boolean gzip) {
+        CachedResponse response = entries.get(key);
+        if (response != null) {
+            hits.incrementAndGet();
+            savedNanos.addAndGet(response.renderNanos() + (gzip ? response.gzipNanos() : 0));
+        }
+        return response;
+    }
+
+    /**
+     * Renders and caches a response. The renderer returns {@code null} for
+     * responses that must not be cached; a response rendered while a write
+     * cleared the cache is returned but not cached.
+     */
+    public CachedResponse render(String key, Function<String, CachedResponse> renderer) {
+        misses.incrementAndGet();
+        return entries.get(key, renderer);
+    }
+
+    public void bypassed() {
+        bypasses.incrementAndGet();
+    }
+
+    public void invalidateAll() {
+        entries.invalidateAll();
+    }
+
+    public long hitCount() {
+        return hits.get();
+    }
+
+    public long missCount() {
+        return misses.get();
+    }
+
+    public long bypassCount() {
+        return bypasses.get();
+    }
+
+    public double savedSeconds() {
+        return savedNanos.get() / 1e9;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long weight() {
+        return entries.weight();
+    }
+
+    public static CachedResponse of(String contentType, byte[] body, long renderNanos) {
+        long start = System.nanoTime();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new CachedResponse(contentType, body, compressed.toByteArray(), renderNanos, System.nanoTime() - start);
+    }
+
+    public record CachedResponse(String contentType, byte[] body, byte[] gzipBody, long renderNanos, long gzipNanos) {
+    }
+}
@@ -0,0 +1,105 @@
+package com.ecommerce.cache;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent identical reads: the first caller for a key runs the
+ * loader on its own thread, and callers arriving while it runs wait for and
+ * share its result or exception. Keys must identify the result type, since
+ * one instance serves several kinds of read.
+ */
+public class SingleFlight {
+
+    private final String name;
+    private final long timeoutNanos;
+    private final ConcurrentHashMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong executed = new AtomicLong();
+    private final AtomicLong collapsed = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+
+    public SingleFlight(String name, Duration timeout) {
+        this.name = name;
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    /**
+     * Runs {@code loader}, or waits up to the timeout for an identical call
+     * already running. A waiter that times out gets
+     * {@link SingleFlightTimeoutException}; the running call is unaffected.
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V execute(Object key, Supplier<? extends V> loader) {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, flight);
+        if (running != null) {
+            collapsed.incrementAndGet();
+            return (V) await(key, running);
+        }
+        executed.incrementAndGet();
+        try {
+            V value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /** Makes later callers for {@code key} start a new call instead of joining one that may predate a write. */
+    public void forget(Object key) {
+        inFlight.remove(key);
+    }
+
+    public void forgetAll() {
+        inFlight.clear();
+    }
+
+    private Object await(Object key, CompletableFuture<Object> running) {
+        try {
+            return running.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw (Error) cause;
+        } catch (TimeoutException e) {
+            timeouts.incrementAndGet();
+            throw new SingleFlightTimeoutException("Timed out waiting for " + name + " read of " + key);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SingleFlightTimeoutException("Interrupted waiting for " + name + " read of " + key);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    public long executedCount() {
+        return executed.get();
+    }
+
+    public long collapsedCount() {
+        return collapsed.get();
+    }
+
+    public long timeoutCount() {
+        return timeouts.get();
+    }
+}
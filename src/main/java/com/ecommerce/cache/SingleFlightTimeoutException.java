@@ -0,0 +1,9 @@
+package com.ecommerce.cache;
+
+public class SingleFlightTimeoutException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public SingleFlightTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,74 @@
+package com.ecommerce.config;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.ecommerce.cache.BoundedCache;
+import com.ecommerce.cache.ResponseCache;
+import com.ecommerce.cache.SingleFlight;
+import com.ecommerce.dto.ProductDTO;
+
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    public BoundedCache<Long, ProductDTO> productCache(@Value("${product.cache.max-entries:10000}") int maxEntries,
+                                                       @Value("${product.cache.max-weight-bytes:33554432}") long maxWeightBytes,
+                                                       @Value("${product.cache.ttl:10m}") Duration ttl) {
+        return new BoundedCache<>(maxEntries, maxWeightBytes, ttl, CacheConfig::estimateSize);
+    }
+
+    // Rendered first pages of GET /api/products and /api/categories; cleared by every product or category write.
+    @Bean
+    public ResponseCache responseCache(@Value("${response-cache.max-entries:256}") int maxEntries,
+                                       @Value("${response-cache.max-weight-bytes:16777216}") long maxWeightBytes,
+                                       @Value("${response-cache.ttl:10m}") Duration ttl) {
+        return new ResponseCache(maxEntries, maxWeightBytes, ttl);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "response-cache.enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<ResponseCacheFilter> responseCacheFilter(ResponseCache responseCache,
+                                                                           @Value("${response-cache.max-page:2}") int maxPage) {
+        Map<String, Set<String>> cacheableParams = Map.of(
+                "/api/products", Set.of("page", "size", "sort"),
+                "/api/categories", Set.of("page", "size"));
+        FilterRegistrationBean<ResponseCacheFilter> registration =
+                new FilterRegistrationBean<>(new ResponseCacheFilter(responseCache, cacheableParams, maxPage));
+        registration.addUrlPatterns("/api/products", "/api/categories");
+        return registration;
+    }
+
+    @Bean
+    public SingleFlight productReads(@Value("${single-flight.timeout:5s}") Duration timeout) {
+        return new SingleFlight("products", timeout);
+    }
+
+    @Bean
+    public SingleFlight categoryReads(@Value("${single-flight.timeout:5s}") Duration timeout) {
+        return new SingleFlight("categories", timeout);
+    }
+
+    // Rough retained size in bytes: object headers plus UTF-16 string contents.
+    static long estimateSize(ProductDTO product) {
+        long size = 128;
+        size += 2L * length(product.getName());
+        size += 2L * length(product.getDescription());
+        size += 2L * length(product.getStatus());
+        if (product.getCategory() != null) {
+            size += 48 + 2L * length(product.getCategory().getName());
+        }
+        return size;
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+}
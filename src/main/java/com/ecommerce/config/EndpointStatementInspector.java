@@ -0,0 +1,33 @@
+package com.ecommerce.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Prefixes every SQL statement issued while handling a request with a comment
+ * naming the endpoint, e.g. {@code /* GET /api/products/{id} *}{@code /}, so
+ * slow-query logs and the database's own process list point back to the
+ * caller. Statements issued outside a request are left untouched.
+ */
+public class EndpointStatementInspector implements StatementInspector {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public String inspect(String sql) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return sql;
+        }
+        Object pattern = attributes.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        if (pattern == null) {
+            return sql;
+        }
+        String endpoint = servletAttributes.getRequest().getMethod() + " " + pattern;
+        return "/* " + endpoint.replace("*/", "*") + " */ " + sql;
+    }
+}
@@ -0,0 +1,85 @@
+package com.ecommerce.config;
+
+import java.util.List;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.ecommerce.cache.BoundedCache;
+import com.ecommerce.cache.ResponseCache;
+import com.ecommerce.cache.SingleFlight;
+import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.service.PriceHistoryService;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+@Configuration
+public class MetricsConfig {
+
+    // Same meter names as Micrometer's own cache binders, so standard cache dashboards work.
+    @Bean
+    public MeterBinder productCacheMetrics(BoundedCache<Long, ProductDTO> productCache) {
+        return registry -> {
+            FunctionCounter.builder("cache.gets", productCache, c -> c.stats().hits())
+                    .tags("cache", "products", "result", "hit").register(registry);
+            FunctionCounter.builder("cache.gets", productCache, c -> c.stats().misses())
+                    .tags("cache", "products", "result", "miss").register(registry);
+            FunctionCounter.builder("cache.evictions", productCache, c -> c.stats().evictions() + c.stats().expirations())
+                    .tag("cache", "products").register(registry);
+            Gauge.builder("cache.size", productCache, BoundedCache::size)
+                    .tag("cache", "products").register(registry);
+            Gauge.builder("cache.weight", productCache, BoundedCache::weight)
+                    .tag("cache", "products").baseUnit("bytes").register(registry);
+        };
+    }
+
+    // "saved" is the rendering (query, mapping, serialization) and gzip time measured when each hit's entry was built.
+    @Bean
+    public MeterBinder responseCacheMetrics(ResponseCache responseCache) {
+        return registry -> {
+            FunctionCounter.builder("response.cache.requests", responseCache, ResponseCache::hitCount)
+                    .tag("result", "hit").register(registry);
+            FunctionCounter.builder("response.cache.requests", responseCache, ResponseCache::missCount)
+                    .tag("result", "miss").register(registry);
+            FunctionCounter.builder("response.cache.requests", responseCache, ResponseCache::bypassCount)
+                    .tag("result", "bypass").register(registry);
+            FunctionCounter.builder("response.cache.saved", responseCache, ResponseCache::savedSeconds)
+                    .baseUnit("seconds").register(registry);
+            Gauge.builder("response.cache.size", responseCache, ResponseCache::size).register(registry);
+            Gauge.builder("response.cache.weight", responseCache, ResponseCache::weight)
+                    .baseUnit("bytes").register(registry);
+        };
+    }
+
+    // "collapsed" calls waited for an identical one instead of querying the database.
+    @Bean
+    public MeterBinder singleFlightMetrics(List<SingleFlight> singleFlights) {
+        return registry -> {
+            for (SingleFlight singleFlight : singleFlights) {
+                FunctionCounter.builder("singleflight.calls", singleFlight, SingleFlight::executedCount)
+                        .tags("name", singleFlight.getName(), "result", "executed").register(registry);
+                FunctionCounter.builder("singleflight.calls", singleFlight, SingleFlight::collapsedCount)
+                        .tags("name", singleFlight.getName(), "result", "collapsed").register(registry);
+                FunctionCounter.builder("singleflight.timeouts", singleFlight, SingleFlight::timeoutCount)
+                        .tag("name", singleFlight.getName()).register(registry);
+                Gauge.builder("singleflight.in.flight", singleFlight, SingleFlight::inFlight)
+                        .tag("name", singleFlight.getName()).register(registry);
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder priceHistoryMetrics(PriceHistoryService priceHistory) {
+        return registry -> Gauge.builder("price.history.pending", priceHistory, PriceHistoryService::pendingCount)
+                .register(registry);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer endpointStatementInspector() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new EndpointStatementInspector());
+    }
+}
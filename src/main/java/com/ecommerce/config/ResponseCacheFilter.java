@@ -0,0 +1,148 @@
+package com.ecommerce.config;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import com.ecommerce.cache.ResponseCache;
+import com.ecommerce.cache.ResponseCache.CachedResponse;
+import com.ecommerce.datasource.ReadYourWritesFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Serves the first pages of the product and category lists from
+ * {@link ResponseCache}. Only plain listings are cached: a request with any
+ * other parameter (a filter, a cursor) or past {@code maxPage} goes through
+ * untouched, as do clients reading their own writes from the primary.
+ */
+public class ResponseCacheFilter extends OncePerRequestFilter {
+
+    private final ResponseCache cache;
+    private final Map<String, Set<String>> cacheableParams;
+    private final int maxPage;
+
+    public ResponseCacheFilter(ResponseCache cache, Map<String, Set<String>> cacheableParams, int maxPage) {
+        this.cache = cache;
+        this.cacheableParams = cacheableParams;
+        this.maxPage = maxPage;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getMethod().equals("GET") || !cacheableParams.containsKey(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = key(request);
+        if (key == null) {
+            cache.bypassed();
+            chain.doFilter(request, response);
+            return;
+        }
+        boolean gzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        CachedResponse cached = cache.get(key, gzip);
+        if (cached != null) {
+            write(cached, gzip, response);
+            return;
+        }
+
+        ContentCachingResponseWrapper buffered = new ContentCachingResponseWrapper(response);
+        CachedResponse rendered;
+        try {
+            rendered = cache.render(key, k -> {
+                long start = System.nanoTime();
+                try {
+                    chain.doFilter(request, buffered);
+                } catch (IOException | ServletException e) {
+                    throw new RenderException(e);
+                }
+                if (buffered.getStatus() != HttpStatus.OK.value() || buffered.getContentType() == null
+                        || buffered.getContentSize() == 0) {
+                    return null;
+                }
+                return ResponseCache.of(buffered.getContentType(), buffered.getContentAsByteArray(), System.nanoTime() - start);
+            });
+        } catch (RenderException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw (ServletException) e.getCause();
+        }
+        if (rendered != null) {
+            write(rendered, gzip, response);
+        } else {
+            buffered.copyBodyToResponse();
+        }
+    }
+
+    // Path, sorted parameters and Accept (JSON, Smile and CBOR bodies differ); null if not cacheable.
+    private String key(HttpServletRequest request) {
+        if (WebUtils.getCookie(request, ReadYourWritesFilter.COOKIE) != null) {
+            return null;
+        }
+        Set<String> allowed = cacheableParams.get(request.getRequestURI());
+        Map<String, String> params = new TreeMap<>();
+        for (Map.Entry<String, String[]> param : request.getParameterMap().entrySet()) {
+            if (!allowed.contains(param.getKey()) || param.getValue().length != 1) {
+                return null;
+            }
+            params.put(param.getKey(), param.getValue()[0]);
+        }
+        try {
+            if (Integer.parseInt(params.getOrDefault("page", "0")) > maxPage) {
+                return null;
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return request.getRequestURI() + "?" + params + "|" + (accept == null ? "*/*" : accept);
+    }
+
+    private static void write(CachedResponse cached, boolean gzip, HttpServletResponse response) throws IOException {
+        byte[] body = gzip ? cached.gzipBody() : cached.body();
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(cached.contentType());
+        response.setHeader(HttpHeaders.VARY, "Accept, Accept-Encoding");
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase("gzip") || name.equals("*")) {
+                return parts.length < 2 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private static class RenderException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        RenderException(Exception cause) {
+            super(cause);
+        }
+    }
+}
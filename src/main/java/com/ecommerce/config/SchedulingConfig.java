@@ -0,0 +1,14 @@
+package com.ecommerce.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Runs the {@code @Scheduled} jobs (outbox relay, flushes, stats). Kept out of
+ * the application class so that slice tests, which do not pick up this
+ * configuration, only run those jobs when a test calls them.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
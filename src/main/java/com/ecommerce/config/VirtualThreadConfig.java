@@ -0,0 +1,29 @@
+package com.ecommerce.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Active only when requests run on virtual threads
+ * ({@code spring.threads.virtual.enabled=true} on Java 21+).
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean
+    public FilterRegistrationBean<AdmissionLimitFilter> admissionLimitFilter(
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+            @Value("${admission.acquire-timeout:5s}") Duration acquireTimeout) {
+        FilterRegistrationBean<AdmissionLimitFilter> registration =
+                new FilterRegistrationBean<>(new AdmissionLimitFilter(poolSize, acquireTimeout));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
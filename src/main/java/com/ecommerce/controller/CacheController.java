@@ -0,0 +1,25 @@
+package com.ecommerce.controller;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.ecommerce.cache.BoundedCache;
+import com.ecommerce.cache.BoundedCache.CacheStats;
+import com.ecommerce.dto.ProductDTO;
+
+@RestController
+@RequestMapping("/api/cache")
+public class CacheController {
+    @Autowired
+    private BoundedCache<Long, ProductDTO> productCache;
+
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, CacheStats>> getStats() {
+        return ResponseEntity.ok(Map.of("products", productCache.stats()));
+    }
+}
@@ -1,21 +1,36 @@
 package com.ecommerce.controller;
 
+import java.net.URI;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.ecommerce.cache.SingleFlightTimeoutException;
+import com.ecommerce.dto.CategoryJob;
+import com.ecommerce.dto.CursorSlice;
+import com.ecommerce.dto.EntityVersion;
 import com.ecommerce.entity.Category;
+import com.ecommerce.entity.CategoryStats;
+import com.ecommerce.service.BulkOperationInProgressException;
+import com.ecommerce.service.CategoryJobs;
 import com.ecommerce.service.CategoryService;
+import com.ecommerce.service.PreconditionFailedException;
 
 @RestController
 @RequestMapping("/api/categories")
@@ -23,10 +38,17 @@ public class CategoryController {
     @Autowired
     private CategoryService categoryService;
 
+    @Autowired
+    private CategoryJobs categoryJobs;
+
     @GetMapping
     public ResponseEntity<Page<Category>> getAllCategories(@RequestParam(defaultValue = "0") int page,
-                                                           @RequestParam(defaultValue = "3") int size) {
+                                                           @RequestParam(defaultValue = "3") int size,
+                                                           @RequestParam(defaultValue = "false") boolean stats) {
     	Page<Category> categories = categoryService.getAllCategories(page, size);
+        if (stats) {
+            categoryService.attachStats(categories.getContent());
+        }
         if (categories.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NO_CONTENT).body(categories);
         }
@@ -34,29 +56,97 @@ public class CategoryController {
         return ResponseEntity.ok(categories);
     }
 
+    @GetMapping(params = "after")
+    public ResponseEntity<CursorSlice<Category>> getCategoriesAfter(@RequestParam String after,
+                                                                   @RequestParam(defaultValue = "3") int size,
+                                                                   @RequestParam(defaultValue = "id") String sort,
+                                                                   @RequestParam(defaultValue = "false") boolean stats) {
+        CursorSlice<Category> categories = categoryService.getCategoriesAfter(after, size, sort);
+        if (stats) {
+            categoryService.attachStats(categories.getContent());
+        }
+        if (categories.isEmpty()) {
+            return ResponseEntity.noContent().build();
+        }
+
+        return ResponseEntity.ok(categories);
+    }
+
     @PostMapping
     public ResponseEntity<Category> createCategory(@RequestBody Category category) {
         return ResponseEntity.ok(categoryService.createCategory(category));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Category> getCategoryById(@PathVariable Long id) {
+    public ResponseEntity<Category> getCategoryById(@PathVariable Long id, WebRequest request) {
+        EntityVersion version = categoryService.getCategoryVersion(id);
+        if (request.checkNotModified(version.etag(), version.lastModifiedMillis())) {
+            return null;
+        }
         Category category = categoryService.getCategoryById(id);
         if (category == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build(); 
         }
-        return ResponseEntity.ok(category); 
+        return Conditional.withValidators(ResponseEntity.ok(), version).body(category); 
 
     }
 
+    @GetMapping("/{id}/stats")
+    public ResponseEntity<CategoryStats> getCategoryStats(@PathVariable Long id) {
+        return ResponseEntity.ok(categoryService.getCategoryStats(id));
+    }
+
     @PutMapping("/{id}")
-    public ResponseEntity<Category> updateCategory(@PathVariable Long id, @RequestBody Category category) {
-        return ResponseEntity.ok(categoryService.updateCategory(id, category));
+    public ResponseEntity<Category> updateCategory(@PathVariable Long id, @RequestBody Category category,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Category updated = categoryService.updateCategory(id, category, ifMatch);
+        return Conditional.withValidators(ResponseEntity.ok(), categoryService.getCategoryVersion(id)).body(updated);
     }
 
+    // Runs in the background; poll the returned job for progress.
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteCategory(@PathVariable Long id) {
-        categoryService.deleteCategory(id);
-        return ResponseEntity.noContent().build();
+    public ResponseEntity<CategoryJob> deleteCategory(@PathVariable Long id) {
+        if (!categoryService.existsById(id)) {
+            return ResponseEntity.noContent().build();
+        }
+        return accepted(categoryJobs.deleteCategory(id));
+    }
+
+    @PostMapping("/{id}/products/move")
+    public ResponseEntity<CategoryJob> moveProducts(@PathVariable Long id, @RequestParam Long to) {
+        return accepted(categoryJobs.moveProducts(id, to));
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<CategoryJob> getJob(@PathVariable String jobId) {
+        CategoryJob job = categoryJobs.getJob(jobId);
+        if (job == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return ResponseEntity.ok(job);
+    }
+
+    private static ResponseEntity<CategoryJob> accepted(CategoryJob job) {
+        return ResponseEntity.accepted().location(URI.create("/api/categories/jobs/" + job.getId())).body(job);
+    }
+
+    @ExceptionHandler({ PreconditionFailedException.class, ObjectOptimisticLockingFailureException.class })
+    public ResponseEntity<String> handlePreconditionFailed(RuntimeException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @ExceptionHandler(SingleFlightTimeoutException.class)
+    public ResponseEntity<String> handleSingleFlightTimeout(SingleFlightTimeoutException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(BulkOperationInProgressException.class)
+    public ResponseEntity<String> handleConflict(BulkOperationInProgressException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
     }
 }
@@ -0,0 +1,37 @@
+package com.ecommerce.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.ecommerce.dto.ChangeFeed;
+import com.ecommerce.outbox.ChangesExpiredException;
+import com.ecommerce.outbox.Outbox;
+
+@RestController
+@RequestMapping("/api/changes")
+public class ChangeController {
+    @Autowired
+    private Outbox outbox;
+
+    @GetMapping
+    public ResponseEntity<ChangeFeed> getChanges(@RequestParam(defaultValue = "0") long since,
+                                                 @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(outbox.changesSince(since, limit));
+    }
+
+    @ExceptionHandler(ChangesExpiredException.class)
+    public ResponseEntity<String> handleChangesExpired(ChangesExpiredException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.GONE);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+}
@@ -0,0 +1,26 @@
+package com.ecommerce.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import com.ecommerce.dto.EntityVersion;
+
+final class Conditional {
+
+    private Conditional() {
+    }
+
+    static boolean isConditional(WebRequest request) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
+
+    static ResponseEntity.BodyBuilder withValidators(ResponseEntity.BodyBuilder builder, EntityVersion version) {
+        builder.eTag(version.etag());
+        if (version.lastModified() != null) {
+            builder.lastModified(version.lastModified());
+        }
+        return builder;
+    }
+}
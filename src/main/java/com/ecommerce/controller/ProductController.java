@@ -1,27 +1,77 @@
 package com.ecommerce.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 
 import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.ecommerce.cache.SingleFlightTimeoutException;
+import com.ecommerce.dto.BulkImportResult;
+import com.ecommerce.dto.CursorSlice;
+import com.ecommerce.dto.EntityVersion;
+import com.ecommerce.dto.FacetedProductPage;
+import com.ecommerce.dto.PriceHistory;
+import com.ecommerce.dto.PriceSummary;
+import com.ecommerce.dto.ProductBatch;
 import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.dto.ProductFacets;
+import com.ecommerce.dto.ProductFilter;
+import com.ecommerce.dto.StockReservation;
 import com.ecommerce.entity.Product;
+import com.ecommerce.service.CatalogExportService;
+import com.ecommerce.service.InsufficientStockException;
+import com.ecommerce.service.PreconditionFailedException;
+import com.ecommerce.service.PriceHistoryService;
+import com.ecommerce.service.ProductImportService;
 import com.ecommerce.service.ProductService;
+import com.ecommerce.service.ProductWriteBehind;
 import com.ecommerce.service.ProductService.ResourceNotFoundException;
+import com.ecommerce.service.ProductService.SearchUnavailableException;
 
 @RestController
 @RequestMapping("/api/products")
 public class ProductController {
+    // Range used when a price query gives no from.
+    private static final Duration DEFAULT_PRICE_RANGE = Duration.ofDays(90);
+
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private CatalogExportService catalogExportService;
+
+    @Autowired
+    private PriceHistoryService priceHistoryService;
+
+    // Present when product.write-behind.enabled=true.
+    @Autowired(required = false)
+    private ProductWriteBehind productWriteBehind;
+
     @GetMapping
     public ResponseEntity<Page<ProductDTO>> getAllProducts(@RequestParam(defaultValue = "0") int page,
-                                                           @RequestParam(defaultValue = "3") int size) {
-        Page<ProductDTO> products = productService.getAllProducts(page, size);
+                                                           @RequestParam(defaultValue = "3") int size,
+                                                           @RequestParam(required = false) String sort,
+                                                           ProductFilter filter) {
+        Page<ProductDTO> products = productService.getProducts(filter, page, size, sort);
         
         if (products.isEmpty()) {
             return ResponseEntity.noContent().build();
@@ -30,32 +80,149 @@ public class ProductController {
         return ResponseEntity.ok(products); 
     }
 
+    @GetMapping(params = "facets=true")
+    public ResponseEntity<FacetedProductPage> getProductsWithFacets(@RequestParam(defaultValue = "0") int page,
+                                                                    @RequestParam(defaultValue = "3") int size,
+                                                                    @RequestParam(required = false) String sort,
+                                                                    @RequestParam(defaultValue = "50") double priceBucket,
+                                                                    ProductFilter filter) {
+        Page<ProductDTO> products = productService.getProducts(filter, page, size, sort);
+        ProductFacets facets = productService.getFacets(filter, priceBucket);
+        return ResponseEntity.ok(new FacetedProductPage(products, facets));
+    }
+
+    @GetMapping(params = "after")
+    public ResponseEntity<CursorSlice<ProductDTO>> getProductsAfter(@RequestParam String after,
+                                                                  @RequestParam(defaultValue = "3") int size,
+                                                                  @RequestParam(defaultValue = "id") String sort) {
+        CursorSlice<ProductDTO> products = productService.getProductsAfter(after, size, sort);
+
+        if (products.isEmpty()) {
+            return ResponseEntity.noContent().build();
+        }
+
+        return ResponseEntity.ok(products);
+    }
+
+    @GetMapping(params = "ids")
+    public ResponseEntity<ProductBatch> getProductsByIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(productService.getProductsByIds(ids));
+    }
+
+    // Same as GET ?ids= for id lists too long for a URL.
+    @PostMapping("/lookup")
+    public ResponseEntity<ProductBatch> lookupProducts(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(productService.getProductsByIds(ids));
+    }
+
     @PostMapping
     public ResponseEntity<ProductDTO> createProduct(@RequestBody Product product) {
         ProductDTO createdProduct = productService.createProduct(product);
         return ResponseEntity.status(201).body(createdProduct); 
     }
 
+    @PostMapping(value = "/bulk", consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public ResponseEntity<BulkImportResult> importProducts(InputStream body) throws IOException {
+        return ResponseEntity.ok(productImportService.importProducts(body));
+    }
+
+    @PostMapping("/{id}/reserve")
+    public ResponseEntity<Void> reserveStock(@PathVariable Long id, @RequestParam(defaultValue = "1") int quantity) {
+        productService.reserveStock(id, quantity);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/reserve")
+    public ResponseEntity<Void> reserveStock(@RequestBody List<StockReservation> reservations) {
+        productService.reserveStock(reservations);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(@RequestParam(defaultValue = "ndjson") String format) {
+        return switch (format) {
+        case "ndjson" -> ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> catalogExportService.writeNdjson(out));
+        case "csv" -> ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=products.csv")
+                .body(out -> catalogExportService.writeCsv(out));
+        default -> throw new IllegalArgumentException("Unsupported export format " + format);
+        };
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<Page<ProductDTO>> searchProducts(@RequestParam String q,
+                                                           @RequestParam(required = false) Long categoryId,
+                                                           @RequestParam(required = false) String status,
+                                                           @RequestParam(defaultValue = "0") int page,
+                                                           @RequestParam(defaultValue = "10") int size) {
+        Page<ProductDTO> products = productService.searchProducts(q, categoryId, status, page, size);
+
+        if (products.isEmpty()) {
+            return ResponseEntity.noContent().build();
+        }
+
+        return ResponseEntity.ok(products);
+    }
+
+    /** Price changes in [from, to); both accept an ISO instant or date (UTC) and default to the last 90 days. */
+    @GetMapping("/{id}/prices")
+    public ResponseEntity<PriceHistory> getPriceHistory(@PathVariable Long id,
+                                                        @RequestParam(required = false) String from,
+                                                        @RequestParam(required = false) String to,
+                                                        @RequestParam(defaultValue = "1000") int limit) {
+        Instant end = to != null ? parseInstant(to) : Instant.now();
+        Instant start = from != null ? parseInstant(from) : end.minus(DEFAULT_PRICE_RANGE);
+        PriceHistory history = priceHistoryService.getHistory(id, start, end, limit);
+        return history != null ? ResponseEntity.ok(history) : ResponseEntity.notFound().build();
+    }
+
+    /** Open, close, min and max price per day, week or month of [from, to), from the daily rollups. */
+    @GetMapping("/{id}/prices/summary")
+    public ResponseEntity<PriceSummary> getPriceSummary(@PathVariable Long id,
+                                                        @RequestParam(required = false) String from,
+                                                        @RequestParam(required = false) String to,
+                                                        @RequestParam(defaultValue = "day") String interval) {
+        LocalDate end = to != null ? parseDate(to) : LocalDate.now(ZoneOffset.UTC).plusDays(1);
+        LocalDate start = from != null ? parseDate(from) : end.minusDays(DEFAULT_PRICE_RANGE.toDays());
+        PriceSummary summary = priceHistoryService.getSummary(id, start, end, interval);
+        return summary != null ? ResponseEntity.ok(summary) : ResponseEntity.notFound().build();
+    }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ProductDTO> getProductById(@PathVariable Long id) {
+    public ResponseEntity<ProductDTO> getProductById(@PathVariable Long id, WebRequest request) {
         try {
+            // Conditional requests are answered from the version columns alone when nothing changed.
+            if (Conditional.isConditional(request)) {
+                EntityVersion version = productService.getProductVersion(id);
+                if (request.checkNotModified(version.etag(), version.lastModifiedMillis())) {
+                    return null;
+                }
+            }
             ProductDTO productDTO = productService.getProductById(id);
-            return new ResponseEntity<>(productDTO, HttpStatus.OK);
+            return Conditional.withValidators(ResponseEntity.ok(), ProductService.versionOf(productDTO)).body(productDTO);
         } catch (ResourceNotFoundException ex) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND); 
         }
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<ProductDTO> updateProduct(@PathVariable Long id, @RequestBody Product product) {
-        ProductDTO updatedProduct = productService.updateProduct(id, product);
+    public ResponseEntity<ProductDTO> updateProduct(@PathVariable Long id, @RequestBody Product product,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        // Conditional updates need the stored version, so they always go straight to the database.
+        if (productWriteBehind != null && ifMatch == null) {
+            productWriteBehind.submit(id, product);
+            return ResponseEntity.accepted().build();
+        }
+        ProductDTO updatedProduct = productService.updateProduct(id, product, EntityVersion.parseVersion(ifMatch));
         
         if (updatedProduct == null) {
             return ResponseEntity.status(404).build(); 
         }
         
-        return ResponseEntity.ok(updatedProduct); 
+        return Conditional.withValidators(ResponseEntity.ok(), ProductService.versionOf(updatedProduct)).body(updatedProduct);
     }
 
 
@@ -79,8 +246,49 @@ public class ProductController {
     }
 
 
+    @ExceptionHandler({ PreconditionFailedException.class, ObjectOptimisticLockingFailureException.class })
+    public ResponseEntity<String> handlePreconditionFailed(RuntimeException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @ExceptionHandler(InsufficientStockException.class)
+    public ResponseEntity<String> handleInsufficientStock(InsufficientStockException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(SearchUnavailableException.class)
+    public ResponseEntity<String> handleSearchUnavailable(SearchUnavailableException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(SingleFlightTimeoutException.class)
+    public ResponseEntity<String> handleSingleFlightTimeout(SingleFlightTimeoutException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<String> handleGeneralException(Exception ex) {
         return new ResponseEntity<>(ex.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR); 
     }
+
+    private static Instant parseInstant(String value) {
+        try {
+            return value.contains("T") ? Instant.parse(value) : parseDate(value).atStartOfDay(ZoneOffset.UTC).toInstant();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid time " + value);
+        }
+    }
+
+    private static LocalDate parseDate(String value) {
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date " + value);
+        }
+    }
 }
@@ -0,0 +1,97 @@
+package com.ecommerce.datasource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Sends read-only transactions to the replicas in {@code app.datasource.replicas}
+ * and everything else to {@code spring.datasource}.
+ */
+@Configuration
+@ConditionalOnProperty("app.datasource.routing.enabled")
+@EnableConfigurationProperties(ReadReplicaProperties.class)
+public class ReadWriteRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaPool replicaPool(HikariDataSource primaryDataSource, DataSourceProperties properties,
+                                   ReadReplicaProperties replicaProperties) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        int index = 0;
+        for (ReadReplicaProperties.Replica replica : replicaProperties.getReplicas()) {
+            HikariConfig config = new HikariConfig();
+            primaryDataSource.copyStateTo(config);
+            config.setPoolName("replica-" + index++);
+            config.setJdbcUrl(replica.getUrl());
+            config.setUsername(replica.getUsername() != null ? replica.getUsername() : properties.determineUsername());
+            config.setPassword(replica.getPassword() != null ? replica.getPassword() : properties.determinePassword());
+            // A replica that is down at startup should not keep the application from starting.
+            config.setInitializationFailTimeout(-1);
+            replicas.add(new HikariDataSource(config));
+        }
+        ReplicaPool pool = new ReplicaPool(primaryDataSource, replicas, replicaProperties.getMaxLag(),
+                replicaProperties.getLagQuery());
+        pool.checkReplicas();
+        return pool;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaPool replicaPool) {
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primaryDataSource, replicaPool));
+    }
+
+    // Hibernate would otherwise keep the first connection for the whole (open-in-view) session,
+    // so a write after a read in the same request could land on a replica.
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionsAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                "DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION");
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ReadReplicaProperties replicaProperties) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(replicaProperties.getStickyWindow()));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+
+    @Bean
+    public HealthIndicator replicasHealthIndicator(ReplicaPool replicaPool) {
+        return () -> {
+            List<ReplicaPool.ReplicaStatus> status = replicaPool.status();
+            // Reads fall back to the primary, so lost replicas degrade capacity rather than availability.
+            return Health.up()
+                    .withDetail("inRotation", status.stream().filter(ReplicaPool.ReplicaStatus::healthy).count())
+                    .withDetail("replicas", status)
+                    .build();
+        };
+    }
+}
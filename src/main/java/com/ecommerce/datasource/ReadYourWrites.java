@@ -0,0 +1,25 @@
+package com.ecommerce.datasource;
+
+/**
+ * Marks the current thread as needing to read its own writes, so read-only
+ * transactions use the primary instead of a possibly lagging replica.
+ */
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<Boolean> STICKY = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    public static void stick() {
+        STICKY.set(Boolean.TRUE);
+    }
+
+    public static void release() {
+        STICKY.remove();
+    }
+
+    public static boolean isSticky() {
+        return STICKY.get() != null;
+    }
+}
@@ -0,0 +1,57 @@
+package com.ecommerce.datasource;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Pins a client to the primary for a short window after it writes. A
+ * mutating request reads from the primary throughout and leaves a cookie that
+ * expires after {@code window}; requests carrying it read from the primary too.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String COOKIE = "rw-primary";
+
+    private final Duration window;
+
+    public ReadYourWritesFilter(Duration window) {
+        this.window = window;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean writing = !isSafe(request.getMethod());
+        if (writing) {
+            ResponseCookie cookie = ResponseCookie.from(COOKIE, "1")
+                    .maxAge(window)
+                    .path("/")
+                    .httpOnly(true)
+                    .sameSite("Lax")
+                    .build();
+            response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+        }
+        if (writing || WebUtils.getCookie(request, COOKIE) != null) {
+            ReadYourWrites.stick();
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadYourWrites.release();
+        }
+    }
+
+    private static boolean isSafe(String method) {
+        return method.equals("GET") || method.equals("HEAD") || method.equals("OPTIONS");
+    }
+}
@@ -0,0 +1,146 @@
+package com.ecommerce.datasource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Hands out connections for read-only transactions: round-robin over the
+ * replicas that passed their last health check, falling back to the primary
+ * when none did.
+ */
+public class ReplicaPool extends AbstractDataSource implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(ReplicaPool.class);
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final Duration maxLag;
+    private final String lagQuery;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaPool(DataSource primary, List<HikariDataSource> replicas, Duration maxLag, String lagQuery) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.maxLag = maxLag;
+        this.lagQuery = lagQuery == null || lagQuery.isBlank() ? null : lagQuery;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        int start = next.getAndIncrement();
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(Math.floorMod(start + i, replicas.size()));
+            if (replica.healthy) {
+                try {
+                    return replica.dataSource.getConnection();
+                } catch (SQLException e) {
+                    replica.markDown("connection failed: " + e.getMessage());
+                }
+            }
+        }
+        return primary.getConnection();
+    }
+
+    /**
+     * Not supported: every replica is a pool logged in with its configured
+     * credentials, and Hikari pools do not hand out connections for other users
+     * either.
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Replica connections use the configured credentials");
+    }
+
+    /**
+     * Takes a replica out of rotation when it is unreachable or, with a lag
+     * query configured, more than {@code maxLag} behind the primary; puts it back
+     * once it has caught up.
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.health-check-interval:5s}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (lagQuery == null) {
+                    if (connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                        replica.markUp(0);
+                    } else {
+                        replica.markDown("connection not valid");
+                    }
+                    continue;
+                }
+                try (Statement statement = connection.createStatement();
+                        ResultSet result = statement.executeQuery(lagQuery)) {
+                    long lag = result.next() ? result.getLong(1) : -1;
+                    if (lag < 0 || result.wasNull()) {
+                        replica.markDown("replication lag unknown");
+                    } else if (lag > maxLag.toSeconds()) {
+                        replica.markDown("replication lag " + lag + "s");
+                    } else {
+                        replica.markUp(lag);
+                    }
+                }
+            } catch (SQLException e) {
+                replica.markDown("health check failed: " + e.getMessage());
+            }
+        }
+    }
+
+    public List<ReplicaStatus> status() {
+        return replicas.stream()
+                .map(r -> new ReplicaStatus(r.dataSource.getPoolName(), r.healthy, r.lagSeconds, r.reason))
+                .toList();
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(r -> r.dataSource.close());
+    }
+
+    public record ReplicaStatus(String name, boolean healthy, long lagSeconds, String reason) {
+    }
+
+    private static final class Replica {
+        private final HikariDataSource dataSource;
+        // Out of rotation until the first health check has passed.
+        private volatile boolean healthy;
+        private volatile long lagSeconds = -1;
+        private volatile String reason = "not checked yet";
+
+        private Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        private void markUp(long lag) {
+            if (!healthy) {
+                log.info("Replica {} back in rotation (lag {}s)", dataSource.getPoolName(), lag);
+            }
+            lagSeconds = lag;
+            reason = null;
+            healthy = true;
+        }
+
+        private void markDown(String why) {
+            if (healthy) {
+                log.warn("Replica {} out of rotation: {}", dataSource.getPoolName(), why);
+            }
+            reason = why;
+            healthy = false;
+        }
+    }
+}
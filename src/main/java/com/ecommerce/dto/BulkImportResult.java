@@ -0,0 +1,86 @@
+package com.ecommerce.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk product import. Inserted and updated rows are only
+ * counted; every rejected row is reported by its zero-based position in the
+ * request body, up to {@link #MAX_REPORTED_ERRORS}.
+ */
+public class BulkImportResult {
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    private int received;
+    private int inserted;
+    private int updated;
+    private int failed;
+    private boolean aborted;
+    private final List<RowError> errors = new ArrayList<>();
+
+    public void rowReceived() {
+        received++;
+    }
+
+    public void rowsInserted(int count) {
+        inserted += count;
+    }
+
+    public void rowsUpdated(int count) {
+        updated += count;
+    }
+
+    public void rowFailed(int index, String message) {
+        failed++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new RowError(index, message));
+        }
+    }
+
+    public void abort(int index, String message) {
+        aborted = true;
+        rowFailed(index, message);
+    }
+
+    public int getReceived() {
+        return received;
+    }
+
+    public int getInserted() {
+        return inserted;
+    }
+
+    public int getUpdated() {
+        return updated;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public boolean isAborted() {
+        return aborted;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public static class RowError {
+        private final int index;
+        private final String message;
+
+        public RowError(int index, String message) {
+            this.index = index;
+            this.message = message;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
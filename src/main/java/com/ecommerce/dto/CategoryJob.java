@@ -0,0 +1,101 @@
+package com.ecommerce.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of a bulk category operation: deleting a category with its
+ * products, or moving its products to another category. Products are
+ * processed in chunks that each commit on their own, so {@code processed}
+ * products are done even if the job later fails.
+ */
+public class CategoryJob {
+    public static final String DELETE = "DELETE";
+    public static final String MOVE = "MOVE";
+
+    public enum State {
+        RUNNING, COMPLETED, FAILED
+    }
+
+    private final String id = UUID.randomUUID().toString();
+    private final String type;
+    private final Long categoryId;
+    private final Long targetCategoryId;
+    private final Instant startedAt = Instant.now();
+    private final AtomicLong processed = new AtomicLong();
+    private volatile long total;
+    private volatile State state = State.RUNNING;
+    private volatile Instant finishedAt;
+    private volatile String error;
+
+    public CategoryJob(String type, Long categoryId, Long targetCategoryId) {
+        this.type = type;
+        this.categoryId = categoryId;
+        this.targetCategoryId = targetCategoryId;
+    }
+
+    // The count taken when the job starts; products added meanwhile can push processed past it.
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public void chunkDone(int products) {
+        processed.addAndGet(products);
+    }
+
+    public void complete() {
+        finishedAt = Instant.now();
+        state = State.COMPLETED;
+    }
+
+    public void fail(String error) {
+        this.error = error;
+        finishedAt = Instant.now();
+        state = State.FAILED;
+    }
+
+    public boolean isFinished() {
+        return state != State.RUNNING;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public Long getTargetCategoryId() {
+        return targetCategoryId;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public long getProcessed() {
+        return processed.get();
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
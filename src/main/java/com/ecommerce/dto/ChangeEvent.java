@@ -0,0 +1,21 @@
+package com.ecommerce.dto;
+
+import java.time.Instant;
+
+import com.ecommerce.entity.OutboxEvent;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+/**
+ * A published product or category change. {@code payload} is the JSON of the
+ * new state (a {@code ProductDTO}, or a category's id, name and version), or
+ * {@code null} for a deletion. Deleting a category also deletes its products,
+ * and renaming it renames them.
+ */
+public record ChangeEvent(long position, String aggregateType, Long aggregateId, String eventType,
+                          @JsonRawValue String payload, Instant occurredAt) {
+
+    public static ChangeEvent of(OutboxEvent event) {
+        return new ChangeEvent(event.getPosition(), event.getAggregateType(), event.getAggregateId(),
+                event.getEventType(), event.getPayload(), event.getCreatedAt());
+    }
+}
@@ -0,0 +1,10 @@
+package com.ecommerce.dto;
+
+import java.util.List;
+
+/**
+ * One page of the change feed. Pass {@code next} as {@code since} to continue;
+ * {@code head} is the latest published position.
+ */
+public record ChangeFeed(List<ChangeEvent> events, long next, boolean hasMore, long head) {
+}
@@ -0,0 +1,56 @@
+package com.ecommerce.dto;
+
+import java.time.Instant;
+
+/**
+ * HTTP validators for a single resource: a strong ETag and, when known, the
+ * last modification time.
+ */
+public record EntityVersion(String etag, Instant lastModified) {
+
+    public static EntityVersion of(String tag, Instant lastModified) {
+        return new EntityVersion('"' + tag + '"', lastModified);
+    }
+
+    public long lastModifiedMillis() {
+        return lastModified == null ? -1 : lastModified.toEpochMilli();
+    }
+
+    /**
+     * Whether an {@code If-Match} header is satisfied: {@code *}, or a list
+     * of strong ETags one of which is this one. Used where the ETag is more
+     * than the entity version, so it cannot be parsed back into one.
+     */
+    public boolean matches(String ifMatch) {
+        for (String tag : ifMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.startsWith("W/")) {
+                throw new IllegalArgumentException("If-Match requires a strong ETag");
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parses an {@code If-Match} header into the entity version it names;
+     * {@code null} for a missing header or {@code *}.
+     */
+    public static Long parseVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            throw new IllegalArgumentException("If-Match requires a strong ETag");
+        }
+        tag = tag.replace("\"", "");
+        try {
+            return Long.valueOf(tag);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid ETag " + ifMatch, e);
+        }
+    }
+}
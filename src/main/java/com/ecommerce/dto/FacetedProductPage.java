@@ -0,0 +1,21 @@
+package com.ecommerce.dto;
+
+import org.springframework.data.domain.Page;
+
+public class FacetedProductPage {
+    private final Page<ProductDTO> products;
+    private final ProductFacets facets;
+
+    public FacetedProductPage(Page<ProductDTO> products, ProductFacets facets) {
+        this.products = products;
+        this.facets = facets;
+    }
+
+    public Page<ProductDTO> getProducts() {
+        return products;
+    }
+
+    public ProductFacets getFacets() {
+        return facets;
+    }
+}
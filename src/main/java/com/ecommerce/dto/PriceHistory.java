@@ -0,0 +1,14 @@
+package com.ecommerce.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The price changes of a product in {@code [from, to)}, oldest first.
+ * {@code openingPrice} is the price in effect at {@code from} ({@code null}
+ * if none was recorded before it). When {@code truncated} is set, continue
+ * from the last change's time.
+ */
+public record PriceHistory(Long productId, Instant from, Instant to, Double openingPrice,
+                           List<PricePoint> changes, boolean truncated) {
+}
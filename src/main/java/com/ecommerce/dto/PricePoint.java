@@ -0,0 +1,7 @@
+package com.ecommerce.dto;
+
+import java.time.Instant;
+
+/** A product's price from {@code changedAt} until its next change. */
+public record PricePoint(Instant changedAt, double price) {
+}
@@ -0,0 +1,15 @@
+package com.ecommerce.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * A product's price downsampled to day, week or month buckets (UTC), oldest
+ * first. A bucket without changes carries the price in effect through it;
+ * buckets before the first recorded price are left out.
+ */
+public record PriceSummary(Long productId, String interval, List<Bucket> buckets) {
+
+    public record Bucket(LocalDate start, double open, double close, double min, double max, int changes) {
+    }
+}
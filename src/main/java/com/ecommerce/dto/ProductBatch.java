@@ -0,0 +1,10 @@
+package com.ecommerce.dto;
+
+import java.util.List;
+
+/**
+ * Result of a multi-get: the products found, in request order, and the
+ * requested ids that do not exist.
+ */
+public record ProductBatch(List<ProductDTO> products, List<Long> missingIds) {
+}
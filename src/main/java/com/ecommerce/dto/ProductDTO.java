@@ -1,11 +1,30 @@
 package com.ecommerce.dto;
 
+import java.time.Instant;
+
 import lombok.Getter;
 import lombok.Setter;
 
 @Getter
 @Setter
 public class ProductDTO {
+    public ProductDTO() {
+    }
+
+    // Used by the JPQL constructor expressions in ProductRepo.
+    public ProductDTO(Long id, String name, String description, Double price, String status, Integer quantity,
+            Long version, Instant updatedAt, Long categoryId, String categoryName) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.price = price;
+        this.status = status;
+        this.quantity = quantity;
+        this.version = version;
+        this.updatedAt = updatedAt;
+        this.category = new CategoryDTO(categoryId, categoryName);
+    }
+
     public Long getId() {
 		return id;
 	}
@@ -54,6 +73,22 @@ public class ProductDTO {
 		this.quantity = quantity;
 	}
 
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+
+	public Instant getUpdatedAt() {
+		return updatedAt;
+	}
+
+	public void setUpdatedAt(Instant updatedAt) {
+		this.updatedAt = updatedAt;
+	}
+
 	public CategoryDTO getCategory() {
 		return category;
 	}
@@ -68,11 +103,21 @@ public class ProductDTO {
     private Double price;
     private String status;
     private Integer quantity;
+    private Long version;
+    private Instant updatedAt;
     private CategoryDTO category;
 
     @Getter
     @Setter
     public static class CategoryDTO {
+        public CategoryDTO() {
+        }
+
+        public CategoryDTO(Long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
         public Long getId() {
 			return id;
 		}
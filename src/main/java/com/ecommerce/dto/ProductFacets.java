@@ -0,0 +1,84 @@
+package com.ecommerce.dto;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Product counts per category, per status and per price bucket for the
+ * products matching a filter.
+ */
+public class ProductFacets {
+    private final List<CategoryCount> categories = new ArrayList<>();
+    private final Map<String, Long> statuses = new LinkedHashMap<>();
+    private final List<PriceRange> priceRanges = new ArrayList<>();
+
+    public List<CategoryCount> getCategories() {
+        return categories;
+    }
+
+    public Map<String, Long> getStatuses() {
+        return statuses;
+    }
+
+    public List<PriceRange> getPriceRanges() {
+        return priceRanges;
+    }
+
+    public static class CategoryCount {
+        private final Long id;
+        private final String name;
+        private long count;
+
+        public CategoryCount(Long id, String name, long count) {
+            this.id = id;
+            this.name = name;
+            this.count = count;
+        }
+
+        public void add(long more) {
+            count += more;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getCount() {
+            return count;
+        }
+    }
+
+    public static class PriceRange {
+        private final double from;
+        private final double to;
+        private long count;
+
+        public PriceRange(double from, double to, long count) {
+            this.from = from;
+            this.to = to;
+            this.count = count;
+        }
+
+        public void add(long more) {
+            count += more;
+        }
+
+        public double getFrom() {
+            return from;
+        }
+
+        public double getTo() {
+            return to;
+        }
+
+        public long getCount() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.ecommerce.dto;
+
+/**
+ * Optional filters on the product listing, bound from query parameters.
+ */
+public class ProductFilter {
+    private Long categoryId;
+    private String status;
+    private Double minPrice;
+    private Double maxPrice;
+    private Boolean inStock;
+
+    public boolean isEmpty() {
+        return categoryId == null && status == null && minPrice == null && maxPrice == null && inStock == null;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Double getMinPrice() {
+        return minPrice;
+    }
+
+    public void setMinPrice(Double minPrice) {
+        this.minPrice = minPrice;
+    }
+
+    public Double getMaxPrice() {
+        return maxPrice;
+    }
+
+    public void setMaxPrice(Double maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+
+    public Boolean getInStock() {
+        return inStock;
+    }
+
+    public void setInStock(Boolean inStock) {
+        this.inStock = inStock;
+    }
+}
@@ -1,11 +1,18 @@
 package com.ecommerce.entity;
 
 import java.io.Serializable;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -14,9 +21,13 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import jakarta.persistence.Version;
 
 @Entity
 @Table(name = "categories")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Category implements Serializable{
     /**
 	 * 
@@ -30,6 +41,18 @@ public class Category implements Serializable{
     @Column(nullable = false, unique = true)
     private String name;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    @UpdateTimestamp
+    private Instant updatedAt;
+
+    // Filled in on listings requested with stats=true; not stored with the category.
+    @Transient
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private CategoryStats stats;
+
     public Long getId() {
 		return id;
 	}
@@ -46,6 +69,30 @@ public class Category implements Serializable{
 		this.name = name;
 	}
 
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+
+	public Instant getUpdatedAt() {
+		return updatedAt;
+	}
+
+	public void setUpdatedAt(Instant updatedAt) {
+		this.updatedAt = updatedAt;
+	}
+
+	public CategoryStats getStats() {
+		return stats;
+	}
+
+	public void setStats(CategoryStats stats) {
+		this.stats = stats;
+	}
+
 	public List<Product> getProducts() {
 		return products;
 	}
@@ -0,0 +1,49 @@
+package com.ecommerce.entity;
+
+import java.time.Instant;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Aggregates over a category's products, kept up to date by the product
+ * writes themselves so that reading them never touches the product table.
+ * Written only through SQL in {@code CategoryStatsService}.
+ */
+@Entity
+@Table(name = "category_stats")
+@Getter
+@Setter
+public class CategoryStats {
+    @Id
+    private Long categoryId;
+
+    @Column(nullable = false)
+    private long productCount;
+
+    // Products with quantity > 0.
+    @Column(nullable = false)
+    private long inStockCount;
+
+    @JsonIgnore
+    @Column(nullable = false)
+    private double priceSum;
+
+    private Double minPrice;
+
+    private Double maxPrice;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+
+    public Double getAveragePrice() {
+        return productCount == 0 ? null : priceSum / productCount;
+    }
+}
@@ -0,0 +1,65 @@
+package com.ecommerce.entity;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * The price changes of a product on one UTC day, rolled up as they are
+ * appended to {@link PriceChange}. Long-range summaries read these rows
+ * instead of the raw history. Written only through SQL in
+ * {@code PriceHistoryService}.
+ */
+@Entity
+@Table(name = "price_history_daily")
+@IdClass(DailyPrice.Key.class)
+@Getter
+@Setter
+public class DailyPrice {
+    @Id
+    private Long productId;
+
+    @Id
+    private LocalDate priceDate;
+
+    // First and last price of the day, ordered by firstAt and lastAt.
+    @Column(nullable = false)
+    private double openPrice;
+
+    @Column(nullable = false)
+    private double closePrice;
+
+    @Column(nullable = false)
+    private double minPrice;
+
+    @Column(nullable = false)
+    private double maxPrice;
+
+    @Column(nullable = false)
+    private int changes;
+
+    @Column(nullable = false)
+    private Instant firstAt;
+
+    @Column(nullable = false)
+    private Instant lastAt;
+
+    @Getter
+    @Setter
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Long productId;
+
+        private LocalDate priceDate;
+    }
+}
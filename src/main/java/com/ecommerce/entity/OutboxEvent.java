@@ -0,0 +1,52 @@
+package com.ecommerce.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * A product or category change, written in the transaction that made it.
+ * {@code position} is assigned by the relay when the event is published and
+ * orders the change feed; it is {@code null} until then.
+ */
+@Entity
+@Table(name = "outbox_event", indexes = {
+        @Index(name = "idx_outbox_event_position", columnList = "position", unique = true),
+        @Index(name = "idx_outbox_event_published_at", columnList = "published_at, id")
+})
+@Getter
+@Setter
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long position;
+
+    @Column(nullable = false, length = 32)
+    private String aggregateType;
+
+    @Column(nullable = false)
+    private Long aggregateId;
+
+    @Column(nullable = false, length = 32)
+    private String eventType;
+
+    // JSON of the new state; null for deletions.
+    @Column(length = 8000)
+    private String payload;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    private Instant publishedAt;
+}
@@ -0,0 +1,40 @@
+package com.ecommerce.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * One price a product took on, appended by {@code PriceHistoryService} and
+ * never updated. The index holds every column a range query reads, so the
+ * history of a product over a time range is one contiguous index scan.
+ */
+@Entity
+@Table(name = "price_history", indexes = {
+        @Index(name = "idx_price_history_product_time", columnList = "product_id, changed_at, price")
+})
+@Getter
+@Setter
+public class PriceChange {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private double price;
+
+    @Column(nullable = false)
+    private Instant changedAt;
+}
@@ -2,6 +2,9 @@ package com.ecommerce.entity;
 
 
 import java.io.Serializable;
+import java.time.Instant;
+
+import org.hibernate.annotations.UpdateTimestamp;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
 
@@ -11,15 +14,22 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 import lombok.Getter;
 import lombok.Setter;
 
 @Entity
-@Table(name="product")
+@Table(name="product", indexes = {
+        @Index(name = "idx_product_name_id", columnList = "name, id"),
+        @Index(name = "idx_product_price_id", columnList = "price, id"),
+        @Index(name = "idx_product_category_status_price", columnList = "category_id, status, price, quantity"),
+        @Index(name = "idx_product_status_price", columnList = "status, price, quantity")
+})
 @Getter
 @Setter
 public class Product {
@@ -50,11 +60,18 @@ public class Product {
 	@Column(nullable = false)
     private Integer quantity;
     
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id", nullable = false)
     @JsonBackReference  // Add this annotation
     private Category category;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    @UpdateTimestamp
+    private Instant updatedAt;
+
 	public Long getId() {
 		return id;
 	}
@@ -102,6 +119,22 @@ public class Product {
 	public void setStatus(String status) {
 		this.status = status;
 	}
+
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+
+	public Instant getUpdatedAt() {
+		return updatedAt;
+	}
+
+	public void setUpdatedAt(Instant updatedAt) {
+		this.updatedAt = updatedAt;
+	}
     
 	@Override
 	public String toString() {
@@ -0,0 +1,15 @@
+package com.ecommerce.outbox;
+
+import java.util.List;
+
+import com.ecommerce.dto.ChangeEvent;
+
+/**
+ * Destination of published change events, called by {@link OutboxRelay} with
+ * batches in position order. A batch whose publish throws is retried, so
+ * sinks see events at least once.
+ */
+public interface ChangeEventSink {
+
+    void publish(List<ChangeEvent> events) throws Exception;
+}
@@ -0,0 +1,9 @@
+package com.ecommerce.outbox;
+
+public class ChangesExpiredException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public ChangesExpiredException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,33 @@
+package com.ecommerce.outbox;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import com.ecommerce.dto.ChangeEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/** Appends events to a file, one JSON object per line. */
+public class FileChangeEventSink implements ChangeEventSink {
+
+    private final Path file;
+    private final ObjectMapper objectMapper;
+
+    public FileChangeEventSink(Path file, ObjectMapper objectMapper) {
+        this.file = file;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public synchronized void publish(List<ChangeEvent> events) throws IOException {
+        try (OutputStream out = Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (ChangeEvent event : events) {
+                out.write(objectMapper.writeValueAsBytes(event));
+                out.write('\n');
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.ecommerce.outbox;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import com.ecommerce.dto.ChangeEvent;
+
+/** Keeps the most recent events in memory, for tests and local inspection. */
+public class InMemoryChangeEventSink implements ChangeEventSink {
+
+    private final int capacity;
+    private final Deque<ChangeEvent> events = new ArrayDeque<>();
+
+    public InMemoryChangeEventSink(int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public synchronized void publish(List<ChangeEvent> batch) {
+        for (ChangeEvent event : batch) {
+            if (events.size() == capacity) {
+                events.removeFirst();
+            }
+            events.addLast(event);
+        }
+    }
+
+    public synchronized List<ChangeEvent> getEvents() {
+        return new ArrayList<>(events);
+    }
+
+    public synchronized void clear() {
+        events.clear();
+    }
+}
@@ -0,0 +1,153 @@
+package com.ecommerce.outbox;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ecommerce.dto.ChangeEvent;
+import com.ecommerce.dto.ChangeFeed;
+import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.entity.Category;
+import com.ecommerce.entity.OutboxEvent;
+import com.ecommerce.repo.OutboxEventRepo;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Records product and category changes as outbox rows. Recording requires the
+ * caller's transaction, so a change and its event commit or roll back
+ * together.
+ */
+@Component
+public class Outbox {
+    public static final String PRODUCT = "PRODUCT";
+    public static final String CATEGORY = "CATEGORY";
+
+    public static final String CREATED = "CREATED";
+    public static final String UPDATED = "UPDATED";
+    public static final String DELETED = "DELETED";
+
+    public static final int MAX_FEED_SIZE = 1000;
+
+    static final String INSERT_SQL = "insert into outbox_event (aggregate_type, aggregate_id, event_type, payload, "
+            + "created_at) values (?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OutboxEventRepo outboxEventRepo;
+
+    // Independent of the HTTP message converters, so stored payloads keep one format.
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void productChanged(String eventType, ProductDTO product) {
+        insert(PRODUCT, product.getId(), eventType, toJson(product));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void productsCreated(List<ProductDTO> products) {
+        productsChanged(CREATED, products);
+    }
+
+    /** One batched insert for many products changed the same way. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void productsChanged(String eventType, List<ProductDTO> products) {
+        insertAll(eventType, products.stream().map(ProductDTO::getId).toList(),
+                products.stream().map(this::toJson).toList());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void productDeleted(Long id) {
+        insert(PRODUCT, id, DELETED, null);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void productsDeleted(List<Long> ids) {
+        insertAll(DELETED, ids, null);
+    }
+
+    private void insertAll(String eventType, List<Long> productIds, List<String> payloads) {
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setString(1, PRODUCT);
+                ps.setLong(2, productIds.get(i));
+                ps.setString(3, eventType);
+                ps.setString(4, payloads == null ? null : payloads.get(i));
+                ps.setTimestamp(5, now);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return productIds.size();
+            }
+        });
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void categoryChanged(String eventType, Category category) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", category.getId());
+        payload.put("name", category.getName());
+        payload.put("version", category.getVersion());
+        insert(CATEGORY, category.getId(), eventType, toJson(payload));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void categoryDeleted(Long id) {
+        insert(CATEGORY, id, DELETED, null);
+    }
+
+    /**
+     * Published events after position {@code since}, oldest first. Fails with
+     * {@link ChangesExpiredException} when events after {@code since} have
+     * already been purged.
+     */
+    @Transactional(readOnly = true)
+    public ChangeFeed changesSince(long since, int limit) {
+        if (limit <= 0 || limit > MAX_FEED_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_FEED_SIZE);
+        }
+        Long oldest = outboxEventRepo.findMinPosition();
+        if (oldest != null && since < oldest - 1) {
+            throw new ChangesExpiredException("Changes after position " + since + " have been purged; "
+                    + "resynchronize, then follow the feed from its current head");
+        }
+        Slice<OutboxEvent> events = outboxEventRepo.findByPositionGreaterThanOrderByPositionAsc(since, PageRequest.of(0, limit));
+        List<ChangeEvent> changes = events.map(ChangeEvent::of).getContent();
+        long next = changes.isEmpty() ? since : changes.get(changes.size() - 1).position();
+        return new ChangeFeed(changes, next, events.hasNext(), outboxEventRepo.findMaxPosition());
+    }
+
+    private void insert(String aggregateType, Long aggregateId, String eventType, String payload) {
+        jdbcTemplate.update(INSERT_SQL, aggregateType, aggregateId, eventType, payload, Timestamp.from(Instant.now()));
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize change event payload", e);
+        }
+    }
+}
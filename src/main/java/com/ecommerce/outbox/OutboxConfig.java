@@ -0,0 +1,38 @@
+package com.ecommerce.outbox;
+
+import java.nio.file.Path;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/** Selects the change event sink with {@code outbox.sink}: {@code none} (default), {@code memory} or {@code file}. */
+@Configuration
+public class OutboxConfig {
+
+    // Events are still served by GET /api/changes.
+    @Bean
+    @ConditionalOnProperty(name = "outbox.sink", havingValue = "none", matchIfMissing = true)
+    public ChangeEventSink noChangeEventSink() {
+        return events -> {
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "outbox.sink", havingValue = "memory")
+    public InMemoryChangeEventSink inMemoryChangeEventSink(@Value("${outbox.sink.memory.capacity:10000}") int capacity) {
+        return new InMemoryChangeEventSink(capacity);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "outbox.sink", havingValue = "file")
+    public FileChangeEventSink fileChangeEventSink(@Value("${outbox.sink.file.path}") Path path) {
+        return new FileChangeEventSink(path, Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build());
+    }
+}
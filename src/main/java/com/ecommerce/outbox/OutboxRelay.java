@@ -0,0 +1,95 @@
+package com.ecommerce.outbox;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ecommerce.dto.ChangeEvent;
+import com.ecommerce.entity.OutboxEvent;
+import com.ecommerce.repo.OutboxEventRepo;
+
+/**
+ * Publishes outbox rows in batches: each batch gets the next feed positions
+ * and is handed to the {@link ChangeEventSink} in the transaction that marks
+ * it published. Positions are assigned in publication order, so a feed reader
+ * never skips an event that committed late.
+ * <p>
+ * The batch is claimed with {@code select ... for update}, so a relay on
+ * another instance (or a manual run) waits for the running one and then sees
+ * its events as published, instead of publishing and numbering them again.
+ */
+@Component
+public class OutboxRelay {
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    @Autowired
+    private OutboxEventRepo outboxEventRepo;
+
+    @Autowired
+    private ChangeEventSink sink;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${outbox.relay.batch-size:500}")
+    private int batchSize;
+
+    @Value("${outbox.retention:7d}")
+    private Duration retention;
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval:1s}")
+    public synchronized void relay() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        try {
+            Integer published;
+            do {
+                published = transaction.execute(status -> publishBatch());
+            } while (published != null && published == batchSize);
+        } catch (RuntimeException e) {
+            // Left unpublished; the next run retries the same events.
+            log.warn("Publishing change events failed", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.purge-interval:1h}")
+    public void purge() {
+        Instant before = Instant.now().minus(retention);
+        Integer purged = new TransactionTemplate(transactionManager)
+                .execute(status -> outboxEventRepo.deletePublishedBefore(before, outboxEventRepo.findMaxPosition()));
+        if (purged != null && purged > 0) {
+            log.info("Purged {} change events published before {}", purged, before);
+        }
+    }
+
+    private int publishBatch() {
+        List<OutboxEvent> events = outboxEventRepo.findByPublishedAtIsNullOrderByIdAsc(Limit.of(batchSize));
+        if (events.isEmpty()) {
+            return 0;
+        }
+        // Read only once the batch is locked: a relay that published before us has committed its positions by now.
+        long position = outboxEventRepo.findMaxPosition();
+        Instant now = Instant.now();
+        for (OutboxEvent event : events) {
+            event.setPosition(++position);
+            event.setPublishedAt(now);
+        }
+        try {
+            sink.publish(events.stream().map(ChangeEvent::of).toList());
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("Change event sink failed", e);
+        }
+        return events.size();
+    }
+}
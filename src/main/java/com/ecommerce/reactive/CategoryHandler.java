@@ -0,0 +1,33 @@
+package com.ecommerce.reactive;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import reactor.core.publisher.Mono;
+
+@Component
+public class CategoryHandler {
+    @Autowired
+    private ReactiveCategoryService categoryService;
+
+    public Mono<ServerResponse> getAllCategories(ServerRequest request) {
+        int page = Responses.intParam(request, "page", 0);
+        int size = Responses.intParam(request, "size", 3);
+        return categoryService.getAllCategories(page, size)
+                .flatMap(categories -> categories.getContent().isEmpty()
+                        ? ServerResponse.noContent().build()
+                        : ServerResponse.ok().bodyValue(categories));
+    }
+
+    public Mono<ServerResponse> getCategoryById(ServerRequest request) {
+        return categoryService.getCategoryById(id(request))
+                .flatMap(category -> Responses.ok(request, category.entityVersion(), category))
+                .switchIfEmpty(Responses.notFound());
+    }
+
+    private static Long id(ServerRequest request) {
+        return Long.valueOf(request.pathVariable("id"));
+    }
+}
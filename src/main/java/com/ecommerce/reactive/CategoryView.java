@@ -0,0 +1,26 @@
+package com.ecommerce.reactive;
+
+import java.time.Instant;
+import java.util.List;
+
+import com.ecommerce.dto.EntityVersion;
+
+/**
+ * JSON shape of a category in the servlet API: the category with its
+ * products embedded (without their back-reference).
+ */
+public record CategoryView(Long id, String name, Long version, Instant updatedAt, List<ProductSummary> products) {
+
+    public CategoryView withProducts(List<ProductSummary> products) {
+        return new CategoryView(id, name, version, updatedAt, products);
+    }
+
+    // Same validators as CategoryService.getCategoryVersion.
+    public EntityVersion entityVersion() {
+        return EntityVersion.of(String.valueOf(version), updatedAt);
+    }
+
+    public record ProductSummary(Long id, String name, String description, Double price, String status,
+                                 Integer quantity, Long version, Instant updatedAt) {
+    }
+}
@@ -0,0 +1,44 @@
+package com.ecommerce.reactive;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.service.ProductService;
+
+import reactor.core.publisher.Mono;
+
+@Component
+public class ProductHandler {
+    @Autowired
+    private ReactiveProductService productService;
+
+    public Mono<ServerResponse> getAllProducts(ServerRequest request) {
+        int page = Responses.intParam(request, "page", 0);
+        int size = Responses.intParam(request, "size", 3);
+        return productService.getAllProducts(page, size)
+                .flatMap(products -> products.getContent().isEmpty()
+                        ? ServerResponse.noContent().build()
+                        : ServerResponse.ok().bodyValue(products));
+    }
+
+    // Written as rows arrive; a slow client stops the database reads instead of growing a buffer.
+    public Mono<ServerResponse> streamProducts(ServerRequest request) {
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(productService.streamProducts(), ProductDTO.class);
+    }
+
+    public Mono<ServerResponse> getProductById(ServerRequest request) {
+        return productService.getProductById(id(request))
+                .flatMap(product -> Responses.ok(request, ProductService.versionOf(product), product))
+                .switchIfEmpty(Responses.notFound());
+    }
+
+    private static Long id(ServerRequest request) {
+        return Long.valueOf(request.pathVariable("id"));
+    }
+}
@@ -0,0 +1,65 @@
+package com.ecommerce.reactive;
+
+import java.time.Instant;
+import java.util.Collection;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import io.r2dbc.spi.Readable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+@Repository
+public class ReactiveCategoryRepository {
+
+    private static final String SELECT = "select id, name, version, updated_at from categories";
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    public Flux<CategoryView> findPage(long offset, int limit) {
+        return databaseClient.sql(SELECT + " order by id limit :limit offset :offset")
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .map(ReactiveCategoryRepository::toView)
+                .all();
+    }
+
+    public Mono<Long> count() {
+        return databaseClient.sql("select count(*) from categories")
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    public Mono<CategoryView> findById(Long id) {
+        return databaseClient.sql(SELECT + " where id = :id")
+                .bind("id", id)
+                .map(ReactiveCategoryRepository::toView)
+                .one();
+    }
+
+    /** Products of the given categories in one query, paired with their category id. */
+    public Flux<Tuple2<Long, CategoryView.ProductSummary>> findProducts(Collection<Long> categoryIds) {
+        if (categoryIds.isEmpty()) {
+            return Flux.empty();
+        }
+        return databaseClient.sql("select id, name, description, price, status, quantity, version, updated_at, "
+                        + "category_id from product where category_id in (:ids) order by id")
+                .bind("ids", categoryIds)
+                .map(row -> Tuples.of(row.get("category_id", Long.class), new CategoryView.ProductSummary(
+                        row.get("id", Long.class), row.get("name", String.class),
+                        row.get("description", String.class), row.get("price", Double.class),
+                        row.get("status", String.class), row.get("quantity", Integer.class),
+                        row.get("version", Long.class), row.get("updated_at", Instant.class))))
+                .all();
+    }
+
+    private static CategoryView toView(Readable row) {
+        return new CategoryView(row.get("id", Long.class), row.get("name", String.class),
+                row.get("version", Long.class), row.get("updated_at", Instant.class), null);
+    }
+}
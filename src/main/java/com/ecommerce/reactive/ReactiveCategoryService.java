@@ -0,0 +1,45 @@
+package com.ecommerce.reactive;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.PagedModel;
+import org.springframework.stereotype.Service;
+
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+
+@Service
+public class ReactiveCategoryService {
+    @Autowired
+    private ReactiveCategoryRepository categoryRepository;
+
+    public Mono<PagedModel<CategoryView>> getAllCategories(int page, int size) {
+        PageRequest pageable = PageRequest.of(page, size);
+        return Mono.zip(categoryRepository.findPage(pageable.getOffset(), size).collectList(), categoryRepository.count())
+                .flatMap(result -> withProducts(result.getT1())
+                        .map(content -> new PagedModel<>(new PageImpl<>(content, pageable, result.getT2()))));
+    }
+
+    public Mono<CategoryView> getCategoryById(Long id) {
+        return categoryRepository.findById(id)
+                .flatMap(category -> withProducts(List.of(category)).map(content -> content.get(0)));
+    }
+
+    private Mono<List<CategoryView>> withProducts(List<CategoryView> categories) {
+        List<Long> ids = categories.stream().map(CategoryView::id).toList();
+        return categoryRepository.findProducts(ids)
+                .collectMultimap(Tuple2::getT1, Tuple2::getT2)
+                .map(products -> categories.stream()
+                        .map(category -> category.withProducts(productsOf(products, category.id())))
+                        .toList());
+    }
+
+    private static List<CategoryView.ProductSummary> productsOf(
+            Map<Long, java.util.Collection<CategoryView.ProductSummary>> products, Long categoryId) {
+        return List.copyOf(products.getOrDefault(categoryId, List.of()));
+    }
+}
@@ -0,0 +1,60 @@
+package com.ecommerce.reactive;
+
+import java.time.Instant;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import com.ecommerce.dto.ProductDTO;
+
+import io.r2dbc.spi.Readable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public class ReactiveProductRepository {
+
+    private static final String SELECT_DTO = "select p.id, p.name, p.description, p.price, p.status, p.quantity, "
+            + "p.version, p.updated_at, c.id as category_id, c.name as category_name "
+            + "from product p join categories c on c.id = p.category_id";
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    public Flux<ProductDTO> findPage(long offset, int limit) {
+        return databaseClient.sql(SELECT_DTO + " order by p.id limit :limit offset :offset")
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .map(ReactiveProductRepository::toDTO)
+                .all();
+    }
+
+    // Rows are pulled from the driver as the subscriber requests them.
+    public Flux<ProductDTO> streamAll() {
+        return databaseClient.sql(SELECT_DTO + " order by p.id")
+                .map(ReactiveProductRepository::toDTO)
+                .all();
+    }
+
+    public Mono<Long> count() {
+        return databaseClient.sql("select count(*) from product")
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    public Mono<ProductDTO> findById(Long id) {
+        return databaseClient.sql(SELECT_DTO + " where p.id = :id")
+                .bind("id", id)
+                .map(ReactiveProductRepository::toDTO)
+                .one();
+    }
+
+    private static ProductDTO toDTO(Readable row) {
+        return new ProductDTO(row.get("id", Long.class), row.get("name", String.class),
+                row.get("description", String.class), row.get("price", Double.class), row.get("status", String.class),
+                row.get("quantity", Integer.class), row.get("version", Long.class),
+                row.get("updated_at", Instant.class), row.get("category_id", Long.class),
+                row.get("category_name", String.class));
+    }
+}
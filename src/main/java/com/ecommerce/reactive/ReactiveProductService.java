@@ -0,0 +1,32 @@
+package com.ecommerce.reactive;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.PagedModel;
+import org.springframework.stereotype.Service;
+
+import com.ecommerce.dto.ProductDTO;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+public class ReactiveProductService {
+    @Autowired
+    private ReactiveProductRepository productRepository;
+
+    public Mono<PagedModel<ProductDTO>> getAllProducts(int page, int size) {
+        PageRequest pageable = PageRequest.of(page, size);
+        return Mono.zip(productRepository.findPage(pageable.getOffset(), size).collectList(), productRepository.count())
+                .map(result -> new PagedModel<>(new PageImpl<>(result.getT1(), pageable, result.getT2())));
+    }
+
+    public Flux<ProductDTO> streamProducts() {
+        return productRepository.streamAll();
+    }
+
+    public Mono<ProductDTO> getProductById(Long id) {
+        return productRepository.findById(id);
+    }
+}
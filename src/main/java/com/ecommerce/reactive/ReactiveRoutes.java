@@ -0,0 +1,46 @@
+package com.ecommerce.reactive;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RequestPredicate;
+import org.springframework.web.reactive.function.server.RequestPredicates;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+/**
+ * The servlet API's product and category reads. Writes are refused with 405:
+ * they must go through the servlet application, which records them in the
+ * outbox and keeps the category stats, caches and search index in step.
+ */
+@Configuration
+public class ReactiveRoutes {
+
+    // Only an explicit NDJSON Accept header streams; a missing one or */* gets the paged JSON.
+    private static final RequestPredicate NDJSON = RequestPredicates.headers(
+            headers -> headers.accept().contains(MediaType.APPLICATION_NDJSON));
+
+    @Bean
+    public RouterFunction<ServerResponse> productRoutes(ProductHandler handler) {
+        return RouterFunctions.route()
+                .GET("/api/products", NDJSON, handler::streamProducts)
+                .GET("/api/products", handler::getAllProducts)
+                .POST("/api/products", Responses::readOnly)
+                .GET("/api/products/{id}", handler::getProductById)
+                .PUT("/api/products/{id}", Responses::readOnly)
+                .DELETE("/api/products/{id}", Responses::readOnly)
+                .build();
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> categoryRoutes(CategoryHandler handler) {
+        return RouterFunctions.route()
+                .GET("/api/categories", handler::getAllCategories)
+                .POST("/api/categories", Responses::readOnly)
+                .GET("/api/categories/{id}", handler::getCategoryById)
+                .PUT("/api/categories/{id}", Responses::readOnly)
+                .DELETE("/api/categories/{id}", Responses::readOnly)
+                .build();
+    }
+}
@@ -0,0 +1,46 @@
+package com.ecommerce.reactive;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import com.ecommerce.dto.EntityVersion;
+
+import reactor.core.publisher.Mono;
+
+/** Conditional-request handling shared by the handlers, as in the servlet controllers. */
+final class Responses {
+
+    private Responses() {
+    }
+
+    static Mono<ServerResponse> notFound() {
+        return ServerResponse.notFound().build();
+    }
+
+    static Mono<ServerResponse> ok(ServerRequest request, EntityVersion version, Object body) {
+        Mono<ServerResponse> notModified = version.lastModified() == null
+                ? request.checkNotModified(version.etag())
+                : request.checkNotModified(version.lastModified(), version.etag());
+        return notModified.switchIfEmpty(withValidators(ServerResponse.ok(), version).bodyValue(body));
+    }
+
+    static ServerResponse.BodyBuilder withValidators(ServerResponse.BodyBuilder builder, EntityVersion version) {
+        builder.eTag(version.etag());
+        if (version.lastModified() != null) {
+            builder.lastModified(version.lastModified());
+        }
+        return builder;
+    }
+
+    static int intParam(ServerRequest request, String name, int defaultValue) {
+        return request.queryParam(name).map(Integer::parseInt).orElse(defaultValue);
+    }
+
+    static Mono<ServerResponse> readOnly(ServerRequest request) {
+        return ServerResponse.status(HttpStatus.METHOD_NOT_ALLOWED)
+                .allow(HttpMethod.GET, HttpMethod.HEAD)
+                .bodyValue("This API is read-only; send writes to the servlet application");
+    }
+}
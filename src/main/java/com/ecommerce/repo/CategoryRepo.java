@@ -1,14 +1,50 @@
 package com.ecommerce.repo;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Optional;
+
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.ecommerce.entity.Category;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface CategoryRepo extends JpaRepository<Category, Long> {
+	// Served from the query cache; any write to categories invalidates it.
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
 	Page<Category> findAll(Pageable pageable);
+
+	// Keyset pagination, see ProductRepo.
+	Slice<Category> findAllBy(Pageable pageable);
+
+	Slice<Category> findByIdGreaterThan(Long id, Pageable pageable);
+
+	@Query("select c from Category c where c.name > :name or (c.name = :name and c.id > :id)")
+	Slice<Category> findByNameAfter(@Param("name") String name, @Param("id") Long id, Pageable pageable);
+
+	interface VersionView {
+		Long getVersion();
+
+		Instant getUpdatedAt();
+	}
+
+	@Query("select c.version as version, c.updatedAt as updatedAt from Category c where c.id = :id")
+	Optional<VersionView> findVersionById(@Param("id") Long id);
+
+	// The category representation embeds its products, so product writes bump the version of their categories.
+	@Modifying
+	@Query("update Category c set c.version = c.version + 1, c.updatedAt = :now where c.id in :ids")
+	int touch(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
 	
 }
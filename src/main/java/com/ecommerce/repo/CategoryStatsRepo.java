@@ -0,0 +1,10 @@
+package com.ecommerce.repo;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.ecommerce.entity.CategoryStats;
+
+@Repository
+public interface CategoryStatsRepo extends JpaRepository<CategoryStats, Long> {
+}
@@ -0,0 +1,39 @@
+package com.ecommerce.repo;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.ecommerce.entity.OutboxEvent;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface OutboxEventRepo extends JpaRepository<OutboxEvent, Long> {
+	// Relay: oldest unpublished events first, in commit-independent id order. Every relay starts at the oldest
+	// row, so the lock also makes a second relay wait until the first has committed its positions.
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	List<OutboxEvent> findByPublishedAtIsNullOrderByIdAsc(Limit limit);
+
+	@Query("select coalesce(max(e.position), 0) from OutboxEvent e")
+	long findMaxPosition();
+
+	@Query("select min(e.position) from OutboxEvent e")
+	Long findMinPosition();
+
+	Slice<OutboxEvent> findByPositionGreaterThanOrderByPositionAsc(Long position, Pageable pageable);
+
+	// The newest event is kept, so the feed can tell a reader that it fell behind the purged range.
+	@Modifying
+	@Query("delete from OutboxEvent e where e.publishedAt < :before and e.position < :keep")
+	int deletePublishedBefore(@Param("before") Instant before, @Param("keep") long keepPosition);
+}
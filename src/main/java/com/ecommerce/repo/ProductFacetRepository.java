@@ -0,0 +1,15 @@
+package com.ecommerce.repo;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.ecommerce.dto.ProductFacets;
+import com.ecommerce.entity.Product;
+
+public interface ProductFacetRepository {
+
+    /**
+     * Computes all facets with a single query grouped by category, status and
+     * price bucket.
+     */
+    ProductFacets countFacets(Specification<Product> spec, double priceBucketWidth);
+}
@@ -0,0 +1,66 @@
+package com.ecommerce.repo;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.ecommerce.dto.ProductFacets;
+import com.ecommerce.dto.ProductFacets.CategoryCount;
+import com.ecommerce.dto.ProductFacets.PriceRange;
+import com.ecommerce.entity.Category;
+import com.ecommerce.entity.Product;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+class ProductFacetRepositoryImpl implements ProductFacetRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public ProductFacets countFacets(Specification<Product> spec, double priceBucketWidth) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Product> product = query.from(Product.class);
+        Join<Product, Category> category = product.join("category");
+        Expression<Number> bucket = cb.floor(cb.quot(product.<Double>get("price"), priceBucketWidth));
+
+        Predicate predicate = spec.toPredicate(product, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.multiselect(category.get("id"), category.get("name"), product.get("status"), bucket, cb.count(product))
+                .groupBy(category.get("id"), category.get("name"), product.get("status"), bucket);
+
+        Map<Long, CategoryCount> categories = new LinkedHashMap<>();
+        Map<Long, PriceRange> priceRanges = new TreeMap<>();
+        ProductFacets facets = new ProductFacets();
+        List<Tuple> rows = entityManager.createQuery(query).getResultList();
+        for (Tuple row : rows) {
+            Long categoryId = row.get(0, Long.class);
+            String categoryName = row.get(1, String.class);
+            String status = row.get(2, String.class);
+            long priceBucket = ((Number) row.get(3)).longValue();
+            long count = row.get(4, Long.class);
+
+            categories.computeIfAbsent(categoryId, id -> new CategoryCount(id, categoryName, 0)).add(count);
+            facets.getStatuses().merge(status, count, Long::sum);
+            priceRanges.computeIfAbsent(priceBucket,
+                    b -> new PriceRange(b * priceBucketWidth, (b + 1) * priceBucketWidth, 0)).add(count);
+        }
+        facets.getCategories().addAll(categories.values());
+        facets.getPriceRanges().addAll(priceRanges.values());
+        return facets;
+    }
+}
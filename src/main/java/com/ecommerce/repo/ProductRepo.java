@@ -1,11 +1,99 @@
 package com.ecommerce.repo;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.entity.Category;
 import com.ecommerce.entity.Product;
 
 @Repository
-public interface ProductRepo extends JpaRepository<Product, Long>{
+public interface ProductRepo extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>, ProductFacetRepository {
+
+	// Read path: ProductDTOs are built straight from a single product/category join.
+	String SELECT_DTO = "select new com.ecommerce.dto.ProductDTO(p.id, p.name, p.description, p.price, p.status, "
+			+ "p.quantity, p.version, p.updatedAt, c.id, c.name) from Product p join p.category c";
+
+	@Query(value = SELECT_DTO, countQuery = "select count(p) from Product p")
+	Page<ProductDTO> findAllDTOs(Pageable pageable);
+
+	@Query(SELECT_DTO + " where p.id = :id")
+	Optional<ProductDTO> findDTOById(@Param("id") Long id);
+
+	@Query(SELECT_DTO + " where p.id in :ids")
+	List<ProductDTO> findDTOsByIdIn(@Param("ids") Collection<Long> ids);
+
+	// Chunks of a category for bulk deletes and moves; each chunk leaves the category, so the next starts from the top.
+	@Query(SELECT_DTO + " where c.id = :categoryId order by p.id")
+	List<ProductDTO> findDTOsByCategoryId(@Param("categoryId") Long categoryId, Limit limit);
+
+	long countByCategoryId(Long categoryId);
+
+	// Set-based, so the category's products are never loaded as entities.
+	@Modifying
+	@Query("delete from Product p where p.id in :ids")
+	int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+	@Modifying
+	@Query("update Product p set p.category = :category, p.version = p.version + 1, p.updatedAt = :now where p.id in :ids")
+	int moveToCategory(@Param("ids") Collection<Long> ids, @Param("category") Category category, @Param("now") Instant now);
+
+	interface VersionView {
+		Long getVersion();
+
+		Instant getUpdatedAt();
+	}
+
+	@Query("select p.version as version, p.updatedAt as updatedAt from Product p where p.id = :id")
+	Optional<VersionView> findVersionById(@Param("id") Long id);
+
+	// Conditional decrement: matches no row rather than letting quantity go negative.
+	@Transactional
+	@Modifying
+	@Query("update Product p set p.quantity = p.quantity - :quantity, p.version = p.version + 1, p.updatedAt = :now "
+			+ "where p.id = :id and p.quantity >= :quantity")
+	int decrementStock(@Param("id") Long id, @Param("quantity") int quantity, @Param("now") Instant now);
+
+	@Transactional
+	@Modifying
+	@Query("update Product p set p.quantity = p.quantity + :quantity, p.version = p.version + 1, p.updatedAt = :now "
+			+ "where p.id = :id")
+	int incrementStock(@Param("id") Long id, @Param("quantity") int quantity, @Param("now") Instant now);
+
+	// Keyset pagination: callers pass PageRequest.of(0, size, <sort key>, id) so no offset or count is issued.
+	@Query(SELECT_DTO)
+	Slice<ProductDTO> findDTOsBy(Pageable pageable);
+
+	@Query(SELECT_DTO + " where p.id > :id")
+	Slice<ProductDTO> findDTOsByIdAfter(@Param("id") Long id, Pageable pageable);
+
+	@Query(SELECT_DTO + " where p.name > :name or (p.name = :name and p.id > :id)")
+	Slice<ProductDTO> findDTOsByNameAfter(@Param("name") String name, @Param("id") Long id, Pageable pageable);
+
+	@Query(SELECT_DTO + " where p.price > :price or (p.price = :price and p.id > :id)")
+	Slice<ProductDTO> findDTOsByPriceAfter(@Param("price") Double price, @Param("id") Long id, Pageable pageable);
+
+	// Entity reads still used outside a transaction (DataInitializer) need the category loaded up front.
+	@Override
+	@EntityGraph(attributePaths = "category")
+	List<Product> findAll();
 
+	@Override
+	@EntityGraph(attributePaths = "category")
+	Optional<Product> findById(Long id);
 }
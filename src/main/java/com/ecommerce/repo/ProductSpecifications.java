@@ -0,0 +1,44 @@
+package com.ecommerce.repo;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.ecommerce.dto.ProductFilter;
+import com.ecommerce.entity.Product;
+
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+    }
+
+    public static Specification<Product> matching(ProductFilter filter) {
+        Specification<Product> spec = Specification.where(null);
+        if (filter.getCategoryId() != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("category").get("id"), filter.getCategoryId()));
+        }
+        if (filter.getStatus() != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("status"), filter.getStatus()));
+        }
+        if (filter.getMinPrice() != null) {
+            spec = spec.and((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("price"), filter.getMinPrice()));
+        }
+        if (filter.getMaxPrice() != null) {
+            spec = spec.and((root, query, cb) -> cb.lessThanOrEqualTo(root.get("price"), filter.getMaxPrice()));
+        }
+        if (filter.getInStock() != null) {
+            spec = spec.and((root, query, cb) -> filter.getInStock()
+                    ? cb.greaterThan(root.get("quantity"), 0)
+                    : cb.lessThanOrEqualTo(root.get("quantity"), 0));
+        }
+        return spec;
+    }
+
+    // Loads the category with the page query (not the count query) so mapping to DTOs needs no extra selects.
+    public static Specification<Product> fetchCategory() {
+        return (root, query, cb) -> {
+            if (query.getResultType() == Product.class) {
+                root.fetch("category");
+            }
+            return null;
+        };
+    }
+}
@@ -0,0 +1,292 @@
+package com.ecommerce.search;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import com.ecommerce.dto.ProductDTO;
+
+/**
+ * In-memory inverted index over product name and description, ranked with
+ * BM25. Matches in the name count {@link #NAME_BOOST} times. Documents are
+ * kept as copies of {@link ProductDTO}s so results are served without the
+ * database.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int NAME_BOOST = 2;
+
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private long totalLength;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+    // Ids deleted while a rebuild scan is running, so the scan cannot resurrect them.
+    private Set<Long> removedDuringRebuild;
+
+    /**
+     * Adds or replaces a product. An older version than the one already indexed
+     * is ignored, which keeps a concurrent rebuild from overwriting fresh writes.
+     */
+    public void index(ProductDTO product) {
+        lock.writeLock().lock();
+        try {
+            if (removedDuringRebuild != null && removedDuringRebuild.contains(product.getId())) {
+                return;
+            }
+            Document existing = documents.get(product.getId());
+            if (existing != null && isOlder(product, existing.product)) {
+                return;
+            }
+            removeInternal(product.getId());
+
+            Map<String, Integer> frequencies = new HashMap<>();
+            TextAnalyzer.terms(product.getName()).forEach(t -> frequencies.merge(t, NAME_BOOST, Integer::sum));
+            TextAnalyzer.terms(product.getDescription()).forEach(t -> frequencies.merge(t, 1, Integer::sum));
+            int length = frequencies.values().stream().mapToInt(Integer::intValue).sum();
+
+            frequencies.forEach((term, tf) -> postings.computeIfAbsent(term, k -> new HashMap<>()).put(product.getId(), tf));
+            documents.put(product.getId(), new Document(copyOf(product), frequencies.keySet().toArray(String[]::new), length));
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            if (removedDuringRebuild != null) {
+                removedDuringRebuild.add(id);
+            }
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeCategory(Long categoryId) {
+        lock.writeLock().lock();
+        try {
+            List<Long> ids = new ArrayList<>();
+            documents.forEach((id, document) -> {
+                if (document.matches(categoryId, null)) {
+                    ids.add(id);
+                }
+            });
+            for (Long id : ids) {
+                if (removedDuringRebuild != null) {
+                    removedDuringRebuild.add(id);
+                }
+                removeInternal(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the category name on every indexed product of that category.
+     */
+    public void renameCategory(Long categoryId, String name) {
+        lock.writeLock().lock();
+        try {
+            for (Document document : documents.values()) {
+                ProductDTO product = document.product;
+                if (product.getCategory() != null && categoryId.equals(product.getCategory().getId())) {
+                    document.product = new ProductDTO(product.getId(), product.getName(), product.getDescription(),
+                            product.getPrice(), product.getStatus(), product.getQuantity(), product.getVersion(),
+                            product.getUpdatedAt(), categoryId, name);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies a stock change that was made with a bulk update, which moved the
+     * product's version by one without reloading it.
+     */
+    public void adjustStock(Long id, int delta, Instant updatedAt) {
+        lock.writeLock().lock();
+        try {
+            Document document = documents.get(id);
+            if (document == null) {
+                return;
+            }
+            ProductDTO product = document.product;
+            ProductDTO.CategoryDTO category = product.getCategory();
+            document.product = new ProductDTO(product.getId(), product.getName(), product.getDescription(),
+                    product.getPrice(), product.getStatus(), product.getQuantity() == null ? null : product.getQuantity() + delta,
+                    product.getVersion() == null ? null : product.getVersion() + 1, updatedAt,
+                    category == null ? null : category.getId(), category == null ? null : category.getName());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Loads every product from {@code scan} into the index while it keeps
+     * serving queries and accepting incremental updates.
+     */
+    public void rebuild(Consumer<Consumer<ProductDTO>> scan) {
+        lock.writeLock().lock();
+        try {
+            removedDuringRebuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            scan.accept(this::index);
+            ready = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                removedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Page<ProductDTO> search(String query, Long categoryId, String status, Pageable pageable) {
+        List<String> terms = new ArrayList<>(new HashSet<>(TextAnalyzer.terms(query)));
+        if (terms.isEmpty()) {
+            return Page.empty(pageable);
+        }
+
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            double averageLength = documentCount == 0 ? 0 : (double) totalLength / documentCount;
+            Map<Long, Double> scores = new HashMap<>();
+            for (String term : terms) {
+                Map<Long, Integer> matches = postings.get(term);
+                if (matches == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (documentCount - matches.size() + 0.5) / (matches.size() + 0.5));
+                for (Map.Entry<Long, Integer> match : matches.entrySet()) {
+                    Document document = documents.get(match.getKey());
+                    if (!document.matches(categoryId, status)) {
+                        continue;
+                    }
+                    int tf = match.getValue();
+                    double norm = K1 * (1 - B + B * document.length / averageLength);
+                    scores.merge(match.getKey(), idf * tf * (K1 + 1) / (tf + norm), Double::sum);
+                }
+            }
+            return page(scores, pageable);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Page<ProductDTO> page(Map<Long, Double> scores, Pageable pageable) {
+        long limit = pageable.getOffset() + pageable.getPageSize();
+        if (limit > Integer.MAX_VALUE || pageable.getOffset() >= scores.size()) {
+            return new PageImpl<>(Collections.emptyList(), pageable, scores.size());
+        }
+        // Keep only the best offset + size hits: lowest score (then highest id) at the head.
+        PriorityQueue<Map.Entry<Long, Double>> top = new PriorityQueue<>((a, b) -> {
+            int byScore = Double.compare(a.getValue(), b.getValue());
+            return byScore != 0 ? byScore : Long.compare(b.getKey(), a.getKey());
+        });
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            top.offer(entry);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+        List<ProductDTO> ranked = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            ranked.add(documents.get(top.poll().getKey()).product);
+        }
+        Collections.reverse(ranked);
+        List<ProductDTO> content = ranked.subList((int) pageable.getOffset(), ranked.size()).stream()
+                .map(ProductSearchIndex::copyOf)
+                .toList();
+        return new PageImpl<>(content, pageable, scores.size());
+    }
+
+    private void removeInternal(Long id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        for (String term : document.terms) {
+            Map<Long, Integer> matches = postings.get(term);
+            if (matches != null) {
+                matches.remove(id);
+                if (matches.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        totalLength -= document.length;
+    }
+
+    // Documents are copied in and out, so neither the writer nor a reader can change an indexed product.
+    private static ProductDTO copyOf(ProductDTO product) {
+        ProductDTO.CategoryDTO category = product.getCategory();
+        return new ProductDTO(product.getId(), product.getName(), product.getDescription(), product.getPrice(),
+                product.getStatus(), product.getQuantity(), product.getVersion(), product.getUpdatedAt(),
+                category == null ? null : category.getId(), category == null ? null : category.getName());
+    }
+
+    private static boolean isOlder(ProductDTO candidate, ProductDTO current) {
+        return candidate.getVersion() != null && current.getVersion() != null
+                && candidate.getVersion() < current.getVersion();
+    }
+
+    private static final class Document {
+        private ProductDTO product;
+        private final String[] terms;
+        private final int length;
+
+        private Document(ProductDTO product, String[] terms, int length) {
+            this.product = product;
+            this.terms = terms;
+            this.length = length;
+        }
+
+        private boolean matches(Long categoryId, String status) {
+            if (categoryId != null && (product.getCategory() == null || !categoryId.equals(product.getCategory().getId()))) {
+                return false;
+            }
+            return status == null || status.equalsIgnoreCase(product.getStatus());
+        }
+    }
+}
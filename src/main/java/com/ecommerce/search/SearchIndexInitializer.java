@@ -0,0 +1,71 @@
+package com.ecommerce.search;
+
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+
+import com.ecommerce.service.ProductService;
+
+/**
+ * Fills the search index from a streaming scan of the catalog once the
+ * application has started, without holding up startup. A failed scan is
+ * retried with backoff.
+ */
+@Component
+public class SearchIndexInitializer {
+    private static final Logger log = LoggerFactory.getLogger(SearchIndexInitializer.class);
+
+    @Autowired
+    private ProductSearchIndex searchIndex;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private TaskExecutor taskExecutor;
+
+    // A failed build is retried after retryDelay, doubling up to maxRetryDelay; search answers 503 until it succeeds.
+    @Value("${search.index.retry-delay:1s}")
+    private Duration retryDelay;
+
+    @Value("${search.index.max-retry-delay:5m}")
+    private Duration maxRetryDelay;
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void buildIndex() {
+        taskExecutor.execute(this::buildWithRetries);
+    }
+
+    void buildWithRetries() {
+        Duration delay = retryDelay;
+        for (int attempt = 1; ; attempt++) {
+            long start = System.nanoTime();
+            try {
+                searchIndex.rebuild(productService::forEachProduct);
+                log.info("Search index built with {} products in {} ms", searchIndex.size(),
+                        (System.nanoTime() - start) / 1_000_000);
+                return;
+            } catch (RuntimeException e) {
+                log.error("Building the search index failed (attempt {}), retrying in {}", attempt, delay, e);
+            }
+            try {
+                Thread.sleep(delay.toMillis());
+            } catch (InterruptedException e) {
+                // Shutting down.
+                Thread.currentThread().interrupt();
+                return;
+            }
+            Duration doubled = delay.multipliedBy(2);
+            delay = doubled.compareTo(maxRetryDelay) > 0 ? maxRetryDelay : doubled;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.ecommerce.service;
+
+public class BulkOperationInProgressException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public BulkOperationInProgressException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,95 @@
+package com.ecommerce.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.ecommerce.dto.ProductDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Writes the full catalog to an output stream one row at a time, so memory use
+ * does not depend on the number of products.
+ */
+@Service
+public class CatalogExportService {
+    private static final String CSV_HEADER = "id,name,description,price,quantity,status,categoryId,categoryName";
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public void writeNdjson(OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(ProductDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            productService.forEachProduct(product -> {
+                try {
+                    writer.writeValue(generator, product);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    public void writeCsv(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+            productService.forEachProduct(product -> {
+                try {
+                    writer.write(String.valueOf(product.getId()));
+                    writer.write(',');
+                    writer.write(csv(product.getName()));
+                    writer.write(',');
+                    writer.write(csv(product.getDescription()));
+                    writer.write(',');
+                    writer.write(String.valueOf(product.getPrice()));
+                    writer.write(',');
+                    writer.write(String.valueOf(product.getQuantity()));
+                    writer.write(',');
+                    writer.write(csv(product.getStatus()));
+                    writer.write(',');
+                    writer.write(String.valueOf(product.getCategory().getId()));
+                    writer.write(',');
+                    writer.write(csv(product.getCategory().getName()));
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,86 @@
+package com.ecommerce.service;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+
+import com.ecommerce.dto.CategoryJob;
+
+/**
+ * Runs bulk category operations in the background and keeps their progress
+ * for polling. Jobs live in this instance's memory; the most recent
+ * {@link #MAX_FINISHED_JOBS} finished ones are kept.
+ */
+@Component
+public class CategoryJobs {
+    private static final Logger log = LoggerFactory.getLogger(CategoryJobs.class);
+
+    static final int MAX_FINISHED_JOBS = 100;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private TaskExecutor taskExecutor;
+
+    private final Map<String, CategoryJob> jobs = new ConcurrentHashMap<>();
+
+    // Running job per category; a second operation on the same category is refused until it ends.
+    private final Map<Long, CategoryJob> running = new ConcurrentHashMap<>();
+
+    public CategoryJob deleteCategory(Long id) {
+        CategoryJob job = new CategoryJob(CategoryJob.DELETE, id, null);
+        return submit(job, j -> categoryService.deleteCategory(id, j));
+    }
+
+    public CategoryJob moveProducts(Long sourceId, Long targetId) {
+        categoryService.checkMove(sourceId, targetId);
+        CategoryJob job = new CategoryJob(CategoryJob.MOVE, sourceId, targetId);
+        return submit(job, j -> categoryService.moveProducts(sourceId, targetId, j));
+    }
+
+    public CategoryJob getJob(String id) {
+        return jobs.get(id);
+    }
+
+    private CategoryJob submit(CategoryJob job, Consumer<CategoryJob> work) {
+        if (running.putIfAbsent(job.getCategoryId(), job) != null) {
+            throw new BulkOperationInProgressException("Category " + job.getCategoryId() + " already has a bulk operation running");
+        }
+        prune();
+        jobs.put(job.getId(), job);
+        taskExecutor.execute(() -> {
+            try {
+                work.accept(job);
+                job.complete();
+            } catch (RuntimeException e) {
+                log.warn("Category job {} ({} of category {}) failed after {} products", job.getId(), job.getType(),
+                        job.getCategoryId(), job.getProcessed(), e);
+                job.fail(e.getMessage());
+            } finally {
+                running.remove(job.getCategoryId(), job);
+            }
+        });
+        return job;
+    }
+
+    private void prune() {
+        List<CategoryJob> finished = jobs.values().stream()
+                .filter(CategoryJob::isFinished)
+                .sorted(Comparator.comparing(CategoryJob::getFinishedAt))
+                .toList();
+        for (int i = 0; i < finished.size() - MAX_FINISHED_JOBS; i++) {
+            jobs.remove(finished.get(i).getId());
+        }
+    }
+}
@@ -1,39 +1,308 @@
 package com.ecommerce.service;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.ecommerce.cache.BoundedCache;
+import com.ecommerce.cache.ResponseCache;
+import com.ecommerce.cache.SingleFlight;
+import com.ecommerce.datasource.ReadYourWrites;
+import com.ecommerce.dto.CategoryJob;
+import com.ecommerce.dto.CursorSlice;
+import com.ecommerce.dto.EntityVersion;
+import com.ecommerce.dto.ProductDTO;
 import com.ecommerce.entity.Category;
+import com.ecommerce.entity.CategoryStats;
+import com.ecommerce.outbox.Outbox;
 import com.ecommerce.repo.CategoryRepo;
+import com.ecommerce.repo.ProductRepo;
+import com.ecommerce.search.ProductSearchIndex;
+
+import io.micrometer.core.annotation.Timed;
 
 @Service
+@Timed("ecommerce.service")
 public class CategoryService {
     @Autowired
     private CategoryRepo categoryRepository;
 
+    @Autowired
+    private ProductRepo productRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private BoundedCache<Long, ProductDTO> productCache;
+
+    @Autowired
+    private SingleFlight productReads;
+
+    @Autowired
+    private ResponseCache responseCache;
+
+    // Keyed by category id. Category rows and listings are already shared through the second-level cache.
+    @Autowired
+    private SingleFlight categoryReads;
+
+    @Autowired
+    private ProductSearchIndex searchIndex;
+
+    @Autowired
+    private Outbox outbox;
+
+    @Autowired
+    private CategoryStatsService categoryStats;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Products deleted or moved per transaction by bulk category operations.
+    @Value("${category.bulk.chunk-size:1000}")
+    private int chunkSize;
+
+    @Transactional(readOnly = true)
     public Page<Category> getAllCategories(int page, int size) {
     	Pageable pageable = PageRequest.of(page, size);
         return categoryRepository.findAll(pageable);	
     }
 
+    @Transactional(readOnly = true)
+    public CursorSlice<Category> getCategoriesAfter(String after, int size, String sort) {
+        KeysetCursor cursor = after == null || after.isEmpty() ? null : KeysetCursor.decode(after);
+        String sortKey = cursor != null ? cursor.getSortKey() : sort;
+        Pageable pageable = switch (sortKey) {
+        case "id" -> PageRequest.of(0, size, Sort.by("id"));
+        case "name" -> PageRequest.of(0, size, Sort.by("name").and(Sort.by("id")));
+        default -> throw new IllegalArgumentException("Unsupported sort key " + sortKey);
+        };
+
+        Slice<Category> categories;
+        if (cursor == null) {
+            categories = categoryRepository.findAllBy(pageable);
+        } else if (sortKey.equals("id")) {
+            categories = categoryRepository.findByIdGreaterThan(cursor.getLastId(), pageable);
+        } else {
+            categories = categoryRepository.findByNameAfter(cursor.getLastValue(), cursor.getLastId(), pageable);
+        }
+
+        String nextCursor = null;
+        if (categories.hasNext()) {
+            Category last = categories.getContent().get(categories.getNumberOfElements() - 1);
+            Object lastValue = sortKey.equals("name") ? last.getName() : last.getId();
+            nextCursor = KeysetCursor.of(sortKey, last.getId(), lastValue).encode();
+        }
+        return new CursorSlice<>(categories.getContent(), size, categories.hasNext(), nextCursor);
+    }
+
+    @Transactional(readOnly = true)
+    public CategoryStats getCategoryStats(Long id) {
+        CategoryStats stats = categoryStats.getStats(id);
+        if (stats == null) {
+            throw new RuntimeException("Category not found with id " + id);
+        }
+        return stats;
+    }
+
+    /** Sets the stats of a page of categories with one primary-key lookup; the page itself stays cacheable. */
+    @Transactional(readOnly = true)
+    public void attachStats(List<Category> categories) {
+        Map<Long, CategoryStats> stats = categoryStats.getStats(categories.stream().map(Category::getId).toList());
+        categories.forEach(category -> category.setStats(stats.get(category.getId())));
+    }
+
+    @Transactional
     public Category createCategory(Category category) {
-        return categoryRepository.save(category);
+        Category created = categoryRepository.save(category);
+        outbox.categoryChanged(Outbox.CREATED, created);
+        categoryStats.categoryCreated(created.getId());
+        AfterCommit.run(responseCache::invalidateAll);
+        return created;
+    }
+
+    @Transactional(readOnly = true)
+    public boolean existsById(Long id) {
+        return categoryRepository.existsById(id);
     }
 
+    @Transactional(readOnly = true)
     public Category getCategoryById(Long id) {
         return categoryRepository.findById(id).orElseThrow(() -> new RuntimeException("Category not found with id " + id));
     }
 
-    public Category updateCategory(Long id, Category updatedCategory) {
+    public EntityVersion getCategoryVersion(Long id) {
+        CategoryRepo.VersionView version = ReadYourWrites.isSticky()
+                ? categoryRepository.findVersionById(id).orElse(null)
+                : categoryReads.execute(id, () -> categoryRepository.findVersionById(id).orElse(null));
+        if (version == null) {
+            throw new RuntimeException("Category not found with id " + id);
+        }
+        return versionOf(version);
+    }
+
+    // The ETag covers the category's products too: product writes bump the version of their categories.
+    private static EntityVersion versionOf(CategoryRepo.VersionView version) {
+        return EntityVersion.of(String.valueOf(version.getVersion()), version.getUpdatedAt());
+    }
+
+    /**
+     * Renames a category. With {@code ifMatch} (an {@code If-Match} header),
+     * fails with {@link PreconditionFailedException} unless it names the
+     * category's current ETag, as returned by {@link #getCategoryVersion}.
+     */
+    @Transactional
+    public Category updateCategory(Long id, Category updatedCategory, String ifMatch) {
         Category category = getCategoryById(id);
+        if (ifMatch != null && !ifMatch.isBlank()) {
+            EntityVersion current = versionOf(categoryRepository.findVersionById(id).orElseThrow());
+            if (!current.matches(ifMatch)) {
+                throw new PreconditionFailedException("Category " + id + " is at " + current.etag());
+            }
+        }
+        boolean renamed = !category.getName().equals(updatedCategory.getName());
         category.setName(updatedCategory.getName());
-        return categoryRepository.save(category);
+        // Flushed so the event carries the new version.
+        Category saved = categoryRepository.saveAndFlush(category);
+        if (renamed) {
+            outbox.categoryChanged(Outbox.UPDATED, saved);
+            String name = saved.getName();
+            AfterCommit.run(() -> {
+                categoryReads.forget(id);
+                productReads.forgetAll();
+                responseCache.invalidateAll();
+                productCache.invalidateIf(product -> id.equals(product.getCategory().getId()));
+                searchIndex.renameCategory(id, name);
+            });
+        }
+        return saved;
     }
 
     public void deleteCategory(Long id) {
-        categoryRepository.deleteById(id);
+        deleteCategory(id, new CategoryJob(CategoryJob.DELETE, id, null));
+    }
+
+    /**
+     * Deletes the category's products with set-based statements, one chunk
+     * per transaction, then the category itself. Going through the
+     * {@code products} cascade instead would load every product as an entity
+     * and delete them one by one.
+     */
+    public void deleteCategory(Long id, CategoryJob job) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        job.setTotal(productRepository.countByCategoryId(id));
+        int deleted;
+        do {
+            deleted = transaction.execute(status -> deleteProductChunk(id));
+            job.chunkDone(deleted);
+        } while (deleted == chunkSize);
+
+        transaction.executeWithoutResult(status -> {
+            // Products created in the category since the last chunk.
+            for (int more = deleteProductChunk(id); more > 0; more = deleteProductChunk(id)) {
+                job.chunkDone(more);
+            }
+            if (categoryRepository.existsById(id)) {
+                categoryRepository.deleteById(id);
+                outbox.categoryDeleted(id);
+            }
+            categoryStats.categoryDeleted(id);
+            AfterCommit.run(() -> {
+                categoryReads.forget(id);
+                responseCache.invalidateAll();
+                searchIndex.removeCategory(id);
+            });
+        });
+    }
+
+    /**
+     * Moves every product of {@code sourceId} to {@code targetId} in chunks,
+     * bumping each product's version. Both categories are kept.
+     */
+    public void moveProducts(Long sourceId, Long targetId, CategoryJob job) {
+        checkMove(sourceId, targetId);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        job.setTotal(productRepository.countByCategoryId(sourceId));
+        int moved;
+        do {
+            moved = transaction.execute(status -> moveProductChunk(sourceId, targetId));
+            job.chunkDone(moved);
+        } while (moved == chunkSize);
+        // Chunks only took their counts off the source; its bounds are settled now that it is (nearly) empty.
+        transaction.executeWithoutResult(status -> categoryStats.recount(sourceId));
+    }
+
+    @Transactional(readOnly = true)
+    public void checkMove(Long sourceId, Long targetId) {
+        if (sourceId.equals(targetId)) {
+            throw new IllegalArgumentException("Products are already in category " + targetId);
+        }
+        for (Long id : new Long[] { sourceId, targetId }) {
+            if (!categoryRepository.existsById(id)) {
+                throw new IllegalArgumentException("Category not found with id " + id);
+            }
+        }
+    }
+
+    private int deleteProductChunk(Long categoryId) {
+        List<ProductDTO> products = productRepository.findDTOsByCategoryId(categoryId, Limit.of(chunkSize));
+        if (products.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = products.stream().map(ProductDTO::getId).toList();
+        productRepository.deleteByIdIn(ids);
+        categoryRepository.touch(List.of(categoryId), Instant.now());
+        outbox.productsDeleted(ids);
+        categoryStats.productsRemoved(categoryId, products);
+        AfterCommit.run(() -> {
+            productService.discardLeases(ids);
+            categoryReads.forget(categoryId);
+            productReads.forgetAll();
+            responseCache.invalidateAll();
+            ids.forEach(id -> {
+                productCache.invalidate(id);
+                searchIndex.remove(id);
+            });
+        });
+        return ids.size();
+    }
+
+    private int moveProductChunk(Long sourceId, Long targetId) {
+        List<ProductDTO> products = productRepository.findDTOsByCategoryId(sourceId, Limit.of(chunkSize));
+        if (products.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = products.stream().map(ProductDTO::getId).toList();
+        Instant now = Instant.now();
+        productRepository.moveToCategory(ids, categoryRepository.getReferenceById(targetId), now);
+        categoryRepository.touch(List.of(sourceId, targetId), now);
+        List<ProductDTO> moved = productRepository.findDTOsByIdIn(ids);
+        outbox.productsChanged(Outbox.UPDATED, moved);
+        categoryStats.productsRemoved(sourceId, products);
+        categoryStats.productsAdded(moved);
+        AfterCommit.run(() -> {
+            categoryReads.forget(sourceId);
+            categoryReads.forget(targetId);
+            productReads.forgetAll();
+            responseCache.invalidateAll();
+            moved.forEach(product -> {
+                productCache.invalidate(product.getId());
+                searchIndex.index(product);
+            });
+        });
+        return ids.size();
     }
 }
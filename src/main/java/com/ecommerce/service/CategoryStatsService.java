@@ -0,0 +1,287 @@
+package com.ecommerce.service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.entity.CategoryStats;
+import com.ecommerce.repo.CategoryRepo;
+import com.ecommerce.repo.CategoryStatsRepo;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Maintains {@link CategoryStats}. Product creates, updates and deletes apply
+ * their delta to the category's row in their own transaction. Only removing
+ * the cheapest or dearest product needs a recount of that category, to find
+ * the new bound.
+ * <p>
+ * Stock reservations only mark their product; categories whose in-stock count
+ * they may have changed are recounted every {@code category.stats.refresh-interval},
+ * so a flash sale does not serialize on one counter row. Those categories get
+ * a new version (and ETag) with the same delay. A periodic
+ * reconciliation recounts every category and repairs any drift, including
+ * writes made outside this application.
+ */
+@Service
+public class CategoryStatsService {
+    private static final Logger log = LoggerFactory.getLogger(CategoryStatsService.class);
+
+    private static final int ID_CHUNK = 500;
+
+    static final String INSERT_SQL = "insert into category_stats (category_id, product_count, in_stock_count, "
+            + "price_sum, updated_at) values (?, 0, 0, 0, ?)";
+
+    static final String ADJUST_SQL = "update category_stats set product_count = product_count + ?, "
+            + "in_stock_count = in_stock_count + ?, price_sum = price_sum + ?, updated_at = ? where category_id = ?";
+
+    static final String ADJUST_RANGE_SQL = "update category_stats set product_count = product_count + ?, "
+            + "in_stock_count = in_stock_count + ?, price_sum = price_sum + ?, "
+            + "min_price = case when min_price is null or ? < min_price then ? else min_price end, "
+            + "max_price = case when max_price is null or ? > max_price then ? else max_price end, "
+            + "updated_at = ? where category_id = ?";
+
+    static final String COUNT_SQL = "select count(*), coalesce(sum(case when quantity > 0 then 1 else 0 end), 0), "
+            + "coalesce(sum(price), 0), min(price), max(price) from product where category_id = ?";
+
+    @Autowired
+    private CategoryStatsRepo categoryStatsRepo;
+
+    @Autowired
+    private CategoryRepo categoryRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Products whose stock changed without a delta being applied.
+    private final Set<Long> stockChanged = ConcurrentHashMap.newKeySet();
+
+    /** Stats of a category, or {@code null} if the category does not exist. */
+    @Transactional(readOnly = true)
+    public CategoryStats getStats(Long categoryId) {
+        // Categories created before the stats existed are counted on the spot until the first reconciliation.
+        return categoryStatsRepo.findById(categoryId)
+                .orElseGet(() -> categoryRepo.existsById(categoryId) ? count(categoryId) : null);
+    }
+
+    @Transactional(readOnly = true)
+    public Map<Long, CategoryStats> getStats(Collection<Long> categoryIds) {
+        Map<Long, CategoryStats> stats = new HashMap<>();
+        categoryStatsRepo.findAllById(categoryIds).forEach(s -> stats.put(s.getCategoryId(), s));
+        return stats;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void categoryCreated(Long categoryId) {
+        jdbcTemplate.update(INSERT_SQL, categoryId, Timestamp.from(Instant.now()));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void categoryDeleted(Long categoryId) {
+        jdbcTemplate.update("delete from category_stats where category_id = ?", categoryId);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void productAdded(Long categoryId, Double price, Integer quantity) {
+        adjust(categoryId, 1, inStock(quantity), value(price), price, price);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void productRemoved(Long categoryId, Double price, Integer quantity) {
+        adjust(categoryId, -1, -inStock(quantity), -value(price), null, null);
+        if (isBound(categoryId, price)) {
+            recount(categoryId);
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void productChanged(Long oldCategoryId, Double oldPrice, Integer oldQuantity,
+                               Long categoryId, Double price, Integer quantity) {
+        if (!oldCategoryId.equals(categoryId)) {
+            productRemoved(oldCategoryId, oldPrice, oldQuantity);
+            productAdded(categoryId, price, quantity);
+            return;
+        }
+        adjust(categoryId, 0, inStock(quantity) - inStock(oldQuantity), value(price) - value(oldPrice), price, price);
+        if (oldPrice != null && !oldPrice.equals(price) && isBound(categoryId, oldPrice)) {
+            recount(categoryId);
+        }
+    }
+
+    /** One update per category for a batch of new products. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void productsAdded(Collection<ProductDTO> products) {
+        Map<Long, List<ProductDTO>> byCategory = new HashMap<>();
+        products.forEach(p -> byCategory.computeIfAbsent(p.getCategory().getId(), id -> new ArrayList<>()).add(p));
+        byCategory.forEach((categoryId, added) -> {
+            long inStock = added.stream().filter(p -> inStock(p.getQuantity()) > 0).count();
+            double sum = added.stream().mapToDouble(p -> value(p.getPrice())).sum();
+            Double min = added.stream().map(ProductDTO::getPrice).filter(p -> p != null).min(Double::compare).orElse(null);
+            Double max = added.stream().map(ProductDTO::getPrice).filter(p -> p != null).max(Double::compare).orElse(null);
+            adjust(categoryId, added.size(), inStock, sum, min, max);
+        });
+    }
+
+    /**
+     * Takes a chunk of products out of the category's counts. Bounds are left
+     * as they are: bulk callers recount once at the end rather than per chunk.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void productsRemoved(Long categoryId, Collection<ProductDTO> products) {
+        long inStock = products.stream().filter(p -> inStock(p.getQuantity()) > 0).count();
+        double sum = products.stream().mapToDouble(p -> value(p.getPrice())).sum();
+        adjust(categoryId, -products.size(), -inStock, -sum, null, null);
+    }
+
+    /** Called after a reservation or lease return commits; the category is recounted on the next refresh. */
+    public void stockChanged(Long productId) {
+        stockChanged.add(productId);
+    }
+
+    @Scheduled(fixedDelayString = "${category.stats.refresh-interval:5s}")
+    public void refresh() {
+        if (stockChanged.isEmpty()) {
+            return;
+        }
+        List<Long> productIds = new ArrayList<>(stockChanged);
+        stockChanged.removeAll(productIds);
+        Set<Long> categoryIds = new LinkedHashSet<>();
+        for (int from = 0; from < productIds.size(); from += ID_CHUNK) {
+            List<Long> chunk = productIds.subList(from, Math.min(from + ID_CHUNK, productIds.size()));
+            String in = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            categoryIds.addAll(jdbcTemplate.queryForList("select distinct category_id from product where id in (" + in + ")",
+                    Long.class, chunk.toArray()));
+        }
+        categoryIds.forEach(categoryId -> recountInTransaction(categoryId, true));
+    }
+
+    /** Recounts every category, adding rows for categories created before the stats existed. */
+    @Scheduled(fixedDelayString = "${category.stats.reconcile-interval:1h}",
+            initialDelayString = "${category.stats.reconcile-initial-delay:30s}")
+    public void reconcile() {
+        Timestamp now = Timestamp.from(Instant.now());
+        try {
+            jdbcTemplate.update("insert into category_stats (category_id, product_count, in_stock_count, price_sum, updated_at) "
+                    + "select c.id, 0, 0, 0, ? from categories c "
+                    + "where not exists (select 1 from category_stats s where s.category_id = c.id)", now);
+        } catch (DuplicateKeyException e) {
+            // A category was created meanwhile and has its row already; the rest are picked up next time.
+        }
+        jdbcTemplate.update("delete from category_stats where not exists "
+                + "(select 1 from categories c where c.id = category_stats.category_id)");
+
+        long lastId = 0;
+        int recounted = 0;
+        List<Long> ids;
+        do {
+            ids = jdbcTemplate.queryForList("select category_id from category_stats where category_id > ? "
+                    + "order by category_id limit " + ID_CHUNK, Long.class, lastId);
+            for (Long id : ids) {
+                recountInTransaction(id, false);
+                lastId = id;
+                recounted++;
+            }
+        } while (ids.size() == ID_CHUNK);
+        log.debug("Reconciled stats of {} categories", recounted);
+    }
+
+    private void recountInTransaction(Long categoryId, boolean touch) {
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                recount(categoryId);
+                if (touch) {
+                    categoryRepo.touch(List.of(categoryId), Instant.now());
+                }
+            });
+        } catch (RuntimeException e) {
+            // Usually a lock conflict with a product write; the next reconciliation retries.
+            log.warn("Recounting stats of category {} failed", categoryId, e);
+        }
+    }
+
+    // Locks the row first: writes that committed before it are counted, later ones apply their delta on top.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recount(Long categoryId) {
+        List<Long> locked = jdbcTemplate.queryForList("select category_id from category_stats where category_id = ? for update",
+                Long.class, categoryId);
+        if (locked.isEmpty()) {
+            return;
+        }
+        // The count runs in SQL, so the caller's pending deletes must reach the database first.
+        entityManager.flush();
+        CategoryStats counted = count(categoryId);
+        jdbcTemplate.update("update category_stats set product_count = ?, in_stock_count = ?, price_sum = ?, "
+                + "min_price = ?, max_price = ?, updated_at = ? where category_id = ?",
+                counted.getProductCount(), counted.getInStockCount(), counted.getPriceSum(), counted.getMinPrice(),
+                counted.getMaxPrice(), Timestamp.from(counted.getUpdatedAt()), categoryId);
+    }
+
+    private CategoryStats count(Long categoryId) {
+        return jdbcTemplate.queryForObject(COUNT_SQL, (rs, row) -> {
+            CategoryStats stats = new CategoryStats();
+            stats.setCategoryId(categoryId);
+            stats.setProductCount(rs.getLong(1));
+            stats.setInStockCount(rs.getLong(2));
+            stats.setPriceSum(rs.getDouble(3));
+            stats.setMinPrice(rs.getObject(4, Double.class));
+            stats.setMaxPrice(rs.getObject(5, Double.class));
+            stats.setUpdatedAt(Instant.now());
+            return stats;
+        }, categoryId);
+    }
+
+    // Rows missing for a category are left to the reconciliation, which counts from scratch.
+    private void adjust(Long categoryId, long count, long inStock, double sum, Double min, Double max) {
+        Timestamp now = Timestamp.from(Instant.now());
+        if (min == null) {
+            jdbcTemplate.update(ADJUST_SQL, count, inStock, sum, now, categoryId);
+        } else {
+            jdbcTemplate.update(ADJUST_RANGE_SQL, count, inStock, sum, min, min, max, max, now, categoryId);
+        }
+    }
+
+    private boolean isBound(Long categoryId, Double price) {
+        if (price == null) {
+            return false;
+        }
+        Integer bounds = jdbcTemplate.queryForObject("select count(*) from category_stats where category_id = ? "
+                + "and (min_price = ? or max_price = ?)", Integer.class, categoryId, price, price);
+        return bounds != null && bounds > 0;
+    }
+
+    private static int inStock(Integer quantity) {
+        return quantity != null && quantity > 0 ? 1 : 0;
+    }
+
+    private static double value(Double price) {
+        return price == null ? 0 : price;
+    }
+}
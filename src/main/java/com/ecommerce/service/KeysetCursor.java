@@ -0,0 +1,57 @@
+package com.ecommerce.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque position token for keyset (seek) pagination: the sort key, the id of
+ * the last row returned and that row's sort value, Base64url encoded.
+ */
+public final class KeysetCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final String sortKey;
+    private final Long lastId;
+    private final String lastValue;
+
+    private KeysetCursor(String sortKey, Long lastId, String lastValue) {
+        this.sortKey = sortKey;
+        this.lastId = lastId;
+        this.lastValue = lastValue;
+    }
+
+    public static KeysetCursor of(String sortKey, Long lastId, Object lastValue) {
+        return new KeysetCursor(sortKey, lastId, lastValue == null ? "" : lastValue.toString());
+    }
+
+    public String encode() {
+        String raw = sortKey + SEPARATOR + lastId + SEPARATOR + lastValue;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, 3);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return new KeysetCursor(parts[0], Long.valueOf(parts[1]), parts[2]);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+
+    public String getSortKey() {
+        return sortKey;
+    }
+
+    public Long getLastId() {
+        return lastId;
+    }
+
+    public String getLastValue() {
+        return lastValue;
+    }
+}
@@ -0,0 +1,343 @@
+package com.ecommerce.service;
+
+import java.sql.BatchUpdateException;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ecommerce.dto.PriceHistory;
+import com.ecommerce.dto.PricePoint;
+import com.ecommerce.dto.PriceSummary;
+import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.repo.ProductRepo;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Append-only price history. Product writes hand their new price over after
+ * they commit; every {@code price-history.flush-interval} the queued changes
+ * are appended to {@code price_history} in JDBC batches, and rolled up into
+ * {@code price_history_daily} in the same transaction. Changes still queued
+ * when the process dies are lost; the current price is always on the product.
+ * <p>
+ * Range queries read the raw history; summaries over days, weeks or months
+ * read one rollup row per day with changes, however many changes there were.
+ */
+@Service
+public class PriceHistoryService {
+    private static final Logger log = LoggerFactory.getLogger(PriceHistoryService.class);
+
+    public static final int MAX_POINTS = 10000;
+
+    public static final int MAX_BUCKETS = 1000;
+
+    static final String INSERT_SQL = "insert into price_history (product_id, price, changed_at) values (?, ?, ?)";
+
+    static final String INSERT_DAY_SQL = "insert into price_history_daily (product_id, price_date, open_price, "
+            + "close_price, min_price, max_price, changes, first_at, last_at) values (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Open and close are assigned before first_at and last_at, which they compare against.
+    static final String MERGE_DAY_SQL = "update price_history_daily set "
+            + "open_price = case when ? < first_at then ? else open_price end, "
+            + "close_price = case when ? >= last_at then ? else close_price end, "
+            + "first_at = case when ? < first_at then ? else first_at end, "
+            + "last_at = case when ? >= last_at then ? else last_at end, "
+            + "min_price = least(min_price, ?), max_price = greatest(max_price, ?), changes = changes + ? "
+            + "where product_id = ? and price_date = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductRepo productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${price-history.batch-size:1000}")
+    private int batchSize;
+
+    private final Queue<Change> pending = new ConcurrentLinkedQueue<>();
+
+    /** Queues a new price of a product; call once the change has committed. */
+    public void record(Long productId, Double price, Instant changedAt) {
+        if (price != null) {
+            pending.add(new Change(productId, price, changedAt != null ? changedAt : Instant.now()));
+        }
+    }
+
+    public void recordAll(Collection<ProductDTO> products) {
+        products.forEach(p -> record(p.getId(), p.getPrice(), p.getUpdatedAt()));
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    @Scheduled(fixedDelayString = "${price-history.flush-interval:1s}")
+    @PreDestroy
+    public synchronized void flush() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        List<Change> batch;
+        while (!(batch = drain()).isEmpty()) {
+            List<Change> changes = batch;
+            try {
+                transaction.executeWithoutResult(status -> write(changes));
+            } catch (RuntimeException e) {
+                log.warn("Writing {} price changes failed; retrying on the next flush", changes.size(), e);
+                pending.addAll(changes);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Price changes of a product in {@code [from, to)}, at most {@code limit}
+     * of them, or {@code null} if the product neither exists nor has a history.
+     */
+    @Transactional(readOnly = true)
+    public PriceHistory getHistory(Long productId, Instant from, Instant to, int limit) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        if (limit < 1 || limit > MAX_POINTS) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_POINTS);
+        }
+        Double opening = jdbcTemplate.queryForList("select price from price_history where product_id = ? "
+                + "and changed_at < ? order by changed_at desc limit 1", Double.class, productId, Timestamp.from(from))
+                .stream().findFirst().orElse(null);
+        List<PricePoint> changes = jdbcTemplate.query("select changed_at, price from price_history where product_id = ? "
+                + "and changed_at >= ? and changed_at < ? order by changed_at limit ?",
+                (rs, row) -> new PricePoint(rs.getTimestamp(1).toInstant(), rs.getDouble(2)),
+                productId, Timestamp.from(from), Timestamp.from(to), limit + 1);
+        if (opening == null && changes.isEmpty() && !productRepository.existsById(productId)) {
+            return null;
+        }
+        boolean truncated = changes.size() > limit;
+        return new PriceHistory(productId, from, to, opening, truncated ? changes.subList(0, limit) : changes, truncated);
+    }
+
+    /**
+     * A product's price per day, week (from Monday) or month in
+     * {@code [from, to)}, built from the daily rollups. {@code from} is moved
+     * back to the start of its bucket. Returns {@code null} if the product
+     * neither exists nor has a history.
+     */
+    @Transactional(readOnly = true)
+    public PriceSummary getSummary(Long productId, LocalDate from, LocalDate to, String interval) {
+        from = bucketStart(from, interval);
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        long buckets = switch (interval) {
+            case "week" -> ChronoUnit.WEEKS.between(from, to);
+            case "month" -> ChronoUnit.MONTHS.between(from, to);
+            default -> ChronoUnit.DAYS.between(from, to);
+        };
+        if (buckets >= MAX_BUCKETS) {
+            throw new IllegalArgumentException("At most " + MAX_BUCKETS + " " + interval + "s can be summarized at once");
+        }
+
+        Double carried = jdbcTemplate.queryForList("select close_price from price_history_daily where product_id = ? "
+                + "and price_date < ? order by price_date desc limit 1", Double.class, productId, Date.valueOf(from))
+                .stream().findFirst().orElse(null);
+        List<PriceSummary.Bucket> days = jdbcTemplate.query("select price_date, open_price, close_price, min_price, "
+                + "max_price, changes from price_history_daily where product_id = ? and price_date >= ? and price_date < ? "
+                + "order by price_date",
+                (rs, row) -> new PriceSummary.Bucket(rs.getDate(1).toLocalDate(), rs.getDouble(2), rs.getDouble(3),
+                        rs.getDouble(4), rs.getDouble(5), rs.getInt(6)),
+                productId, Date.valueOf(from), Date.valueOf(to));
+        if (carried == null && days.isEmpty() && !productRepository.existsById(productId)) {
+            return null;
+        }
+
+        List<PriceSummary.Bucket> summary = new ArrayList<>();
+        int next = 0;
+        for (LocalDate start = from; start.isBefore(to); start = nextBucket(start, interval)) {
+            LocalDate end = nextBucket(start, interval);
+            Double open = carried, close = carried, min = carried, max = carried;
+            int changes = 0;
+            for (; next < days.size() && days.get(next).start().isBefore(end); next++) {
+                PriceSummary.Bucket day = days.get(next);
+                if (open == null) {
+                    open = min = max = day.open();
+                }
+                close = day.close();
+                min = Math.min(min, day.min());
+                max = Math.max(max, day.max());
+                changes += day.changes();
+            }
+            if (open != null) {
+                summary.add(new PriceSummary.Bucket(start, open, close, min, max, changes));
+                carried = close;
+            }
+        }
+        return new PriceSummary(productId, interval, summary);
+    }
+
+    private static LocalDate bucketStart(LocalDate date, String interval) {
+        return switch (interval) {
+            case "day" -> date;
+            case "week" -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case "month" -> date.withDayOfMonth(1);
+            default -> throw new IllegalArgumentException("interval must be day, week or month");
+        };
+    }
+
+    private static LocalDate nextBucket(LocalDate start, String interval) {
+        return switch (interval) {
+            case "week" -> start.plusWeeks(1);
+            case "month" -> start.plusMonths(1);
+            default -> start.plusDays(1);
+        };
+    }
+
+    private List<Change> drain() {
+        List<Change> batch = new ArrayList<>();
+        Change change;
+        while (batch.size() < batchSize && (change = pending.poll()) != null) {
+            batch.add(change);
+        }
+        return batch;
+    }
+
+    private void write(List<Change> changes) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, changes, changes.size(), (ps, change) -> {
+            ps.setLong(1, change.productId());
+            ps.setDouble(2, change.price());
+            ps.setTimestamp(3, Timestamp.from(change.changedAt()));
+        });
+
+        Map<DayKey, DayRollup> days = new LinkedHashMap<>();
+        changes.stream()
+                .sorted(Comparator.comparing(Change::changedAt))
+                .forEach(change -> days.computeIfAbsent(DayKey.of(change), key -> new DayRollup()).add(change));
+        List<Map.Entry<DayKey, DayRollup>> rollups = new ArrayList<>(days.entrySet());
+        int[][] merged = jdbcTemplate.batchUpdate(MERGE_DAY_SQL, rollups, rollups.size(),
+                (ps, day) -> setMerge(day.getKey(), day.getValue(), ps));
+        List<Map.Entry<DayKey, DayRollup>> missing = new ArrayList<>();
+        for (int i = 0; i < rollups.size(); i++) {
+            if (merged[0][i] == 0) {
+                missing.add(rollups.get(i));
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(INSERT_DAY_SQL, missing, missing.size(), (ps, day) -> setInsert(day.getKey(), day.getValue(), ps));
+        } catch (DuplicateKeyException e) {
+            // Another instance started one of these days meanwhile; merge into its rows one by one. Drivers may
+            // carry on past the failed row (Connector/J does), so the days this batch did insert are skipped.
+            int[] inserted = updateCounts(e);
+            for (int i = 0; i < missing.size(); i++) {
+                if (i < inserted.length && inserted[i] != Statement.EXECUTE_FAILED) {
+                    continue;
+                }
+                Map.Entry<DayKey, DayRollup> day = missing.get(i);
+                if (jdbcTemplate.update(MERGE_DAY_SQL, ps -> setMerge(day.getKey(), day.getValue(), ps)) == 0) {
+                    jdbcTemplate.update(INSERT_DAY_SQL, ps -> setInsert(day.getKey(), day.getValue(), ps));
+                }
+            }
+        }
+    }
+
+    // Without per-row counts it is unknown which days were inserted; the flush rolls back and retries instead.
+    private static int[] updateCounts(DuplicateKeyException e) {
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof BatchUpdateException batch) {
+                return batch.getUpdateCounts();
+            }
+        }
+        throw e;
+    }
+
+    private static void setMerge(DayKey key, DayRollup day, PreparedStatement ps) throws SQLException {
+        Timestamp firstAt = Timestamp.from(day.firstAt);
+        Timestamp lastAt = Timestamp.from(day.lastAt);
+        ps.setTimestamp(1, firstAt);
+        ps.setDouble(2, day.open);
+        ps.setTimestamp(3, lastAt);
+        ps.setDouble(4, day.close);
+        ps.setTimestamp(5, firstAt);
+        ps.setTimestamp(6, firstAt);
+        ps.setTimestamp(7, lastAt);
+        ps.setTimestamp(8, lastAt);
+        ps.setDouble(9, day.min);
+        ps.setDouble(10, day.max);
+        ps.setInt(11, day.changes);
+        ps.setLong(12, key.productId());
+        ps.setDate(13, Date.valueOf(key.date()));
+    }
+
+    private static void setInsert(DayKey key, DayRollup day, PreparedStatement ps) throws SQLException {
+        ps.setLong(1, key.productId());
+        ps.setDate(2, Date.valueOf(key.date()));
+        ps.setDouble(3, day.open);
+        ps.setDouble(4, day.close);
+        ps.setDouble(5, day.min);
+        ps.setDouble(6, day.max);
+        ps.setInt(7, day.changes);
+        ps.setTimestamp(8, Timestamp.from(day.firstAt));
+        ps.setTimestamp(9, Timestamp.from(day.lastAt));
+    }
+
+    private record Change(long productId, double price, Instant changedAt) {
+    }
+
+    private record DayKey(long productId, LocalDate date) {
+        static DayKey of(Change change) {
+            return new DayKey(change.productId(), LocalDate.ofInstant(change.changedAt(), ZoneOffset.UTC));
+        }
+    }
+
+    // Changes of one product on one day within a flush, added in time order.
+    private static final class DayRollup {
+        private double open;
+        private double close;
+        private double min = Double.MAX_VALUE;
+        private double max = -Double.MAX_VALUE;
+        private int changes;
+        private Instant firstAt;
+        private Instant lastAt;
+
+        void add(Change change) {
+            if (changes++ == 0) {
+                open = change.price();
+                firstAt = change.changedAt();
+            }
+            close = change.price();
+            lastAt = change.changedAt();
+            min = Math.min(min, change.price());
+            max = Math.max(max, change.price());
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.ecommerce.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ecommerce.cache.ResponseCache;
+import com.ecommerce.dto.BulkImportResult;
+import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.outbox.Outbox;
+import com.ecommerce.repo.CategoryRepo;
+import com.ecommerce.search.ProductSearchIndex;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Streams a JSON array or NDJSON body of products into the product table.
+ * Rows with an id update that product, the others are inserted. Rows go
+ * through plain JDBC batches because the IDENTITY id generator prevents
+ * Hibernate from batching inserts.
+ */
+@Service
+public class ProductImportService {
+    static final String INSERT_SQL = "insert into product (name, description, price, quantity, status, category_id, "
+            + "version, updated_at) values (?, ?, ?, ?, ?, ?, 0, ?)";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CategoryRepo categoryRepo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductSearchIndex searchIndex;
+
+    @Autowired
+    private Outbox outbox;
+
+    @Autowired
+    private CategoryStatsService categoryStats;
+
+    @Autowired
+    private ResponseCache responseCache;
+
+    @Autowired
+    private PriceHistoryService priceHistory;
+
+    @Value("${product.bulk.batch-size:1000}")
+    private int batchSize;
+
+    public BulkImportResult importProducts(InputStream body) throws IOException {
+        BulkImportResult result = new BulkImportResult();
+        List<ImportRow> batch = new ArrayList<>(batchSize);
+        int index = 0;
+
+        try (MappingIterator<ProductDTO> rows = objectMapper.readerFor(ProductDTO.class).readValues(body)) {
+            while (true) {
+                ProductDTO product;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    product = rows.nextValue();
+                } catch (JsonParseException e) {
+                    result.rowReceived();
+                    result.abort(index, "Malformed JSON: " + e.getOriginalMessage());
+                    break;
+                } catch (JsonMappingException e) {
+                    result.rowReceived();
+                    result.rowFailed(index++, e.getOriginalMessage());
+                    continue;
+                }
+
+                result.rowReceived();
+                String error = validate(product);
+                if (error != null) {
+                    result.rowFailed(index++, error);
+                    continue;
+                }
+                batch.add(new ImportRow(index++, product));
+                if (batch.size() >= batchSize) {
+                    writeBatch(batch, result);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(batch, result);
+        }
+        return result;
+    }
+
+    private void writeBatch(List<ImportRow> batch, BulkImportResult result) {
+        Set<Long> categoryIds = new HashSet<>();
+        batch.forEach(row -> categoryIds.add(row.product.getCategory().getId()));
+        Map<Long, String> categoryNames = new HashMap<>();
+        categoryRepo.findAllById(categoryIds).forEach(c -> categoryNames.put(c.getId(), c.getName()));
+
+        List<ImportRow> valid = new ArrayList<>(batch.size());
+        for (ImportRow row : batch) {
+            Long categoryId = row.product.getCategory().getId();
+            if (categoryNames.containsKey(categoryId)) {
+                row.product.getCategory().setName(categoryNames.get(categoryId));
+                valid.add(row);
+            } else {
+                result.rowFailed(row.index, "Category not found with id " + categoryId);
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        List<ImportRow> inserts = new ArrayList<>(valid.size());
+        List<ImportRow> updates = new ArrayList<>();
+        valid.forEach(row -> (row.product.getId() == null ? inserts : updates).add(row));
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        try {
+            Set<Long> updatedIds = new HashSet<>();
+            List<ProductDTO> inserted = transaction.execute(status -> {
+                if (!updates.isEmpty()) {
+                    productService.applyUpdates(updates.stream().map(row -> toUpdate(row.product)).toList())
+                            .forEach(product -> updatedIds.add(product.getId()));
+                }
+                if (inserts.isEmpty()) {
+                    return List.<ProductDTO>of();
+                }
+                List<ProductDTO> products = insert(inserts);
+                categoryRepo.touch(products.stream().map(product -> product.getCategory().getId())
+                        .collect(Collectors.toSet()), Instant.now());
+                outbox.productsCreated(products);
+                categoryStats.productsAdded(products);
+                return products;
+            });
+            result.rowsInserted(inserted.size());
+            for (ImportRow row : updates) {
+                if (updatedIds.contains(row.product.getId())) {
+                    result.rowsUpdated(1);
+                } else {
+                    result.rowFailed(row.index, "Product not found with id " + row.product.getId());
+                }
+            }
+            if (!inserted.isEmpty()) {
+                responseCache.invalidateAll();
+                inserted.forEach(searchIndex::index);
+                priceHistory.recordAll(inserted);
+            }
+        } catch (DataAccessException e) {
+            String message = "Batch rejected: " + e.getMostSpecificCause().getMessage();
+            valid.forEach(row -> result.rowFailed(row.index, message));
+        }
+    }
+
+    // Same fields as a PUT: the status of an existing product is left as it is.
+    private static ProductUpdate toUpdate(ProductDTO product) {
+        return new ProductUpdate(product.getId(), product.getName(), product.getDescription(), product.getPrice(),
+                product.getQuantity(), product.getCategory().getId(), Instant.now());
+    }
+
+    private List<ProductDTO> insert(List<ImportRow> rows) {
+        Instant now = Instant.now();
+        Timestamp timestamp = Timestamp.from(now);
+        GeneratedKeyHolder keys = new GeneratedKeyHolder();
+        BatchPreparedStatementSetter values = new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ProductDTO product = rows.get(i).product;
+                ps.setString(1, product.getName());
+                ps.setString(2, product.getDescription());
+                ps.setDouble(3, product.getPrice());
+                ps.setInt(4, product.getQuantity());
+                ps.setString(5, product.getStatus());
+                ps.setLong(6, product.getCategory().getId());
+                ps.setTimestamp(7, timestamp);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        };
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_SQL, new String[] { "id" }), values, keys);
+
+        List<Map<String, Object>> generated = keys.getKeyList();
+        List<ProductDTO> inserted = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            ProductDTO product = rows.get(i).product;
+            product.setId(((Number) generated.get(i).values().iterator().next()).longValue());
+            product.setVersion(0L);
+            product.setUpdatedAt(now);
+            inserted.add(product);
+        }
+        return inserted;
+    }
+
+    private String validate(ProductDTO product) {
+        if (product == null) {
+            return "Row is empty";
+        }
+        if (product.getName() == null || product.getName().isBlank()) {
+            return "name is required";
+        }
+        if (product.getPrice() == null) {
+            return "price is required";
+        }
+        if (product.getQuantity() == null) {
+            return "quantity is required";
+        }
+        // Updates keep the stored status, so only new products need one.
+        if (product.getStatus() == null && product.getId() == null) {
+            return "status is required";
+        }
+        if (product.getCategory() == null || product.getCategory().getId() == null) {
+            return "category.id is required";
+        }
+        return null;
+    }
+
+    private static final class ImportRow {
+        private final int index;
+        private final ProductDTO product;
+
+        private ImportRow(int index, ProductDTO product) {
+            this.index = index;
+            this.product = product;
+        }
+    }
+}
@@ -1,28 +1,124 @@
 package com.ecommerce.service;
 
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.ecommerce.cache.BoundedCache;
+import com.ecommerce.cache.ResponseCache;
+import com.ecommerce.cache.SingleFlight;
+import com.ecommerce.datasource.ReadYourWrites;
+import com.ecommerce.dto.CursorSlice;
+import com.ecommerce.dto.EntityVersion;
+import com.ecommerce.dto.ProductBatch;
 import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.dto.ProductFacets;
+import com.ecommerce.dto.ProductFilter;
+import com.ecommerce.dto.StockReservation;
 import com.ecommerce.entity.Category;
 import com.ecommerce.entity.Product;
+import com.ecommerce.outbox.Outbox;
 import com.ecommerce.repo.CategoryRepo;
 import com.ecommerce.repo.ProductRepo;
+import com.ecommerce.repo.ProductSpecifications;
+import com.ecommerce.search.ProductSearchIndex;
+
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 
 @Service
+@Timed("ecommerce.service")
 public class ProductService {
     @Autowired
     private ProductRepo productRepository;
 
     @Autowired
     private CategoryRepo categoryRepo;
+
+    @Autowired
+    private BoundedCache<Long, ProductDTO> productCache;
+
+    @Autowired
+    private SingleFlight productReads;
+
+    @Autowired
+    private ResponseCache responseCache;
+
+    @Autowired
+    private ProductSearchIndex searchIndex;
+
+    @Autowired
+    private Outbox outbox;
+
+    @Autowired
+    private CategoryStatsService categoryStats;
+
+    @Autowired
+    private PriceHistoryService priceHistory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
     
-    public class ResourceNotFoundException extends RuntimeException {
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Units taken from the database per refill when reservations are buffered; 0 reserves straight against the row.
+    @Value("${product.reserve.lease-size:0}")
+    private int leaseSize;
+
+    private final StockLeases stockLeases = new StockLeases();
+
+    public static final int MAX_BATCH_IDS = 500;
+
+    // Forward-only read of the whole catalog; the category is fetched with each row, so no other query runs meanwhile.
+    private static final String STREAM_ALL = "select p from Product p join fetch p.category order by p.id";
+
+    private static final int STREAM_FETCH_SIZE = 1000;
+
+    private static final Set<String> SORTABLE = Set.of("id", "name", "price", "quantity");
+
+    // productReads keys: Long for a product, VersionKey for its version, PageRequest for an unfiltered page.
+    private record VersionKey(Long id) {
+    }
+
+    public static class ResourceNotFoundException extends RuntimeException {
         private static final long serialVersionUID = 1L; 
 
         public ResourceNotFoundException(String message) {
@@ -36,33 +132,209 @@ public class ProductService {
 
 
 
+    public class SearchUnavailableException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        public SearchUnavailableException(String message) {
+            super(message);
+        }
+    }
+
+    @Transactional(readOnly = true)
     public Page<ProductDTO> getAllProducts(int page, int size) {
-        Page<Product> products = productRepository.findAll(PageRequest.of(page, size));
-        return new PageImpl<>(
-            products.getContent().stream().map(this::mapToDTO).collect(Collectors.toList()),
-            products.getPageable(),
-            products.getTotalElements()
-        );
+        return productRepository.findAllDTOs(PageRequest.of(page, size));
+    }
+
+    public Page<ProductDTO> getProducts(ProductFilter filter, int page, int size, String sort) {
+        PageRequest pageable = PageRequest.of(page, size, parseSort(sort));
+        if (filter.isEmpty()) {
+            return coalesce(pageable, () -> productRepository.findAllDTOs(pageable));
+        }
+        Specification<Product> spec = ProductSpecifications.matching(filter).and(ProductSpecifications.fetchCategory());
+        return productRepository.findAll(spec, pageable).map(this::mapToDTO);
+    }
+
+    @Transactional(readOnly = true)
+    public ProductFacets getFacets(ProductFilter filter, double priceBucketWidth) {
+        if (priceBucketWidth <= 0) {
+            throw new IllegalArgumentException("priceBucket must be positive");
+        }
+        return productRepository.countFacets(ProductSpecifications.matching(filter), priceBucketWidth);
+    }
+
+    // "field" or "field,asc|desc" over a fixed set of indexed columns; id breaks ties.
+    private Sort parseSort(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return Sort.unsorted();
+        }
+        String[] parts = sort.split(",");
+        String property = parts[0].trim();
+        if (!SORTABLE.contains(property)) {
+            throw new IllegalArgumentException("Unsupported sort key " + property);
+        }
+        Sort.Direction direction = parts.length > 1
+                ? Sort.Direction.fromString(parts[1].trim())
+                : Sort.Direction.ASC;
+        Sort order = Sort.by(direction, property);
+        return property.equals("id") ? order : order.and(Sort.by(direction, "id"));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorSlice<ProductDTO> getProductsAfter(String after, int size, String sort) {
+        KeysetCursor cursor = after == null || after.isEmpty() ? null : KeysetCursor.decode(after);
+        String sortKey = cursor != null ? cursor.getSortKey() : sort;
+        Pageable pageable = keysetPage(sortKey, size);
+
+        Slice<ProductDTO> products;
+        if (cursor == null) {
+            products = productRepository.findDTOsBy(pageable);
+        } else {
+            Long lastId = cursor.getLastId();
+            products = switch (sortKey) {
+            case "id" -> productRepository.findDTOsByIdAfter(lastId, pageable);
+            case "name" -> productRepository.findDTOsByNameAfter(cursor.getLastValue(), lastId, pageable);
+            case "price" -> productRepository.findDTOsByPriceAfter(parsePrice(cursor.getLastValue()), lastId, pageable);
+            default -> throw new IllegalArgumentException("Unsupported sort key " + sortKey);
+            };
+        }
+
+        String nextCursor = null;
+        if (products.hasNext()) {
+            ProductDTO last = products.getContent().get(products.getNumberOfElements() - 1);
+            Object lastValue = switch (sortKey) {
+            case "name" -> last.getName();
+            case "price" -> last.getPrice();
+            default -> last.getId();
+            };
+            nextCursor = KeysetCursor.of(sortKey, last.getId(), lastValue).encode();
+        }
+        return new CursorSlice<>(products.getContent(), size, products.hasNext(), nextCursor);
+    }
+
+    private Pageable keysetPage(String sortKey, int size) {
+        return switch (sortKey) {
+        case "id" -> PageRequest.of(0, size, Sort.by("id"));
+        case "name", "price" -> PageRequest.of(0, size, Sort.by(sortKey).and(Sort.by("id")));
+        default -> throw new IllegalArgumentException("Unsupported sort key " + sortKey);
+        };
     }
 
+    private Double parsePrice(String value) {
+        try {
+            return Double.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor value " + value, e);
+        }
+    }
+
+    // Each product is detached once mapped so the persistence context does not grow with the catalog.
+    @Transactional(readOnly = true)
+    public void forEachProduct(Consumer<ProductDTO> consumer) {
+        try (Stream<Product> products = entityManager.createQuery(STREAM_ALL, Product.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, streamFetchSize())
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+            products.forEach(product -> {
+                consumer.accept(mapToDTO(product));
+                entityManager.detach(product);
+            });
+        }
+    }
+
+    @Transactional
     public ProductDTO createProduct(Product product) {
         Long categoryId = product.getCategory().getId();
         Category category = categoryRepo.findById(categoryId)
                 .orElseThrow(() -> new RuntimeException("Category not found with id " + categoryId));
         product.setCategory(category);
         Product savedProduct = productRepository.save(product);
-        return mapToDTO(savedProduct);
+        categoryRepo.touch(List.of(categoryId), Instant.now());
+        ProductDTO created = mapToDTO(savedProduct);
+        outbox.productChanged(Outbox.CREATED, created);
+        categoryStats.productAdded(categoryId, created.getPrice(), created.getQuantity());
+        AfterCommit.run(() -> {
+            productReads.forgetAll();
+            responseCache.invalidateAll();
+            productCache.invalidate(created.getId());
+            searchIndex.index(created);
+            priceHistory.record(created.getId(), created.getPrice(), created.getUpdatedAt());
+        });
+        return created;
     }
 
     public ProductDTO getProductById(Long id) {
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id " + id));
-        return mapToDTO(product);
+        ProductDTO product = productCache.get(id, key -> coalesce(key, () -> productRepository.findDTOById(key).orElse(null)));
+        if (product == null) {
+            throw new ResourceNotFoundException("Product not found with id " + id);
+        }
+        return product;
+    }
+
+    /**
+     * Products for a list of ids, in request order with duplicates dropped.
+     * Cached products are served from the product cache; the rest are loaded
+     * with a single query.
+     */
+    @Transactional(readOnly = true)
+    public ProductBatch getProductsByIds(List<Long> ids) {
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        requested.remove(null);
+        if (requested.size() > MAX_BATCH_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_IDS + " ids can be requested at once");
+        }
+        Map<Long, ProductDTO> found = productCache.getAll(requested, missing -> productRepository.findDTOsByIdIn(missing)
+                .stream()
+                .collect(Collectors.toMap(ProductDTO::getId, Function.identity())));
+
+        List<ProductDTO> products = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : requested) {
+            ProductDTO product = found.get(id);
+            if (product != null) {
+                products.add(product);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new ProductBatch(products, missingIds);
+    }
+
+    public Page<ProductDTO> searchProducts(String query, Long categoryId, String status, int page, int size) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be empty");
+        }
+        if (!searchIndex.isReady()) {
+            throw new SearchUnavailableException("Search index is still being built");
+        }
+        return searchIndex.search(query, categoryId, status, PageRequest.of(page, size));
     }
 
-    public ProductDTO updateProduct(Long id, Product updatedProduct) {
+    public EntityVersion getProductVersion(Long id) {
+        ProductDTO cached = productCache.get(id);
+        if (cached != null) {
+            return versionOf(cached);
+        }
+        ProductRepo.VersionView version = coalesce(new VersionKey(id), () -> productRepository.findVersionById(id).orElse(null));
+        if (version == null) {
+            throw new ResourceNotFoundException("Product not found with id " + id);
+        }
+        return EntityVersion.of(String.valueOf(version.getVersion()), version.getUpdatedAt());
+    }
+
+    public static EntityVersion versionOf(ProductDTO product) {
+        return EntityVersion.of(String.valueOf(product.getVersion()), product.getUpdatedAt());
+    }
+
+    @Transactional
+    public ProductDTO updateProduct(Long id, Product updatedProduct, Long expectedVersion) {
         Product existingProduct = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found with id " + id));
+        if (expectedVersion != null && !expectedVersion.equals(existingProduct.getVersion())) {
+            throw new PreconditionFailedException("Product " + id + " is at version " + existingProduct.getVersion());
+        }
+        Long oldCategoryId = existingProduct.getCategory().getId();
+        Double oldPrice = existingProduct.getPrice();
+        Integer oldQuantity = existingProduct.getQuantity();
 
         existingProduct.setName(updatedProduct.getName());
         existingProduct.setDescription(updatedProduct.getDescription());
@@ -74,21 +346,245 @@ public class ProductService {
                 .orElseThrow(() -> new RuntimeException("Category not found with id " + categoryId));
         existingProduct.setCategory(category);
 
-        Product savedProduct = productRepository.save(existingProduct);
-        return mapToDTO(savedProduct);
+        Product savedProduct = productRepository.saveAndFlush(existingProduct);
+        categoryRepo.touch(List.of(oldCategoryId, categoryId), Instant.now());
+        ProductDTO updated = mapToDTO(savedProduct);
+        outbox.productChanged(Outbox.UPDATED, updated);
+        categoryStats.productChanged(oldCategoryId, oldPrice, oldQuantity, categoryId, updated.getPrice(), updated.getQuantity());
+        AfterCommit.run(() -> {
+            // The new quantity is absolute, so stock leased out before it no longer counts. Dropped only on
+            // commit: after a rollback the leased units are still missing from the row and must be returned.
+            stockLeases.discard(id);
+            productReads.forgetAll();
+            responseCache.invalidateAll();
+            productCache.invalidate(id);
+            searchIndex.index(updated);
+            if (!Objects.equals(oldPrice, updated.getPrice())) {
+                priceHistory.record(id, updated.getPrice(), updated.getUpdatedAt());
+            }
+        });
+        return updated;
     }
 
+    static final String UPDATE_SQL = "update product set name = ?, description = ?, price = ?, quantity = ?, "
+            + "category_id = ?, version = version + 1, updated_at = ? where id = ?";
+
+    /**
+     * Writes write-behind updates in one JDBC batch, with the same effects as
+     * {@link #updateProduct} minus the version check. Updates of products
+     * that no longer exist are skipped; the products that were updated are
+     * returned.
+     */
+    @Transactional
+    public List<ProductDTO> applyUpdates(List<ProductUpdate> updates) {
+        List<Long> ids = updates.stream().map(ProductUpdate::id).toList();
+        Map<Long, ProductDTO> before = productRepository.findDTOsByIdIn(ids).stream()
+                .collect(Collectors.toMap(ProductDTO::getId, Function.identity()));
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbcTemplate.batchUpdate(UPDATE_SQL, updates, updates.size(), (ps, update) -> {
+            ps.setString(1, update.name());
+            ps.setString(2, update.description());
+            ps.setObject(3, update.price());
+            ps.setObject(4, update.quantity());
+            ps.setLong(5, update.categoryId());
+            ps.setTimestamp(6, now);
+            ps.setLong(7, update.id());
+        });
+        List<ProductDTO> updated = productRepository.findDTOsByIdIn(ids);
+        if (!updated.isEmpty()) {
+            categoryRepo.touch(Stream.concat(before.values().stream(), updated.stream())
+                    .map(product -> product.getCategory().getId()).collect(Collectors.toSet()), now.toInstant());
+        }
+        updated.forEach(product -> {
+            outbox.productChanged(Outbox.UPDATED, product);
+            ProductDTO old = before.get(product.getId());
+            categoryStats.productChanged(old.getCategory().getId(), old.getPrice(), old.getQuantity(),
+                    product.getCategory().getId(), product.getPrice(), product.getQuantity());
+        });
+        AfterCommit.run(() -> {
+            productReads.forgetAll();
+            responseCache.invalidateAll();
+            updated.forEach(product -> {
+                stockLeases.discard(product.getId());
+                productCache.invalidate(product.getId());
+                searchIndex.index(product);
+                if (!Objects.equals(before.get(product.getId()).getPrice(), product.getPrice())) {
+                    priceHistory.record(product.getId(), product.getPrice(), product.getUpdatedAt());
+                }
+            });
+        });
+        return updated;
+    }
+
+    @Transactional
     public boolean deleteProduct(Long id) {
-        if (productRepository.existsById(id)) {
-            productRepository.deleteById(id);
+        Product product = productRepository.findById(id).orElse(null);
+        if (product != null) {
+            productRepository.delete(product);
+            categoryRepo.touch(List.of(product.getCategory().getId()), Instant.now());
+            outbox.productDeleted(id);
+            categoryStats.productRemoved(product.getCategory().getId(), product.getPrice(), product.getQuantity());
+            AfterCommit.run(() -> {
+                stockLeases.discard(id);
+                productReads.forgetAll();
+                responseCache.invalidateAll();
+                productCache.invalidate(id);
+                searchIndex.remove(id);
+            });
             return true; 
         } else {
             return false; 
         }
     }
 
+    public void reserveStock(Long id, int quantity) {
+        requirePositive(quantity);
+        if (leaseSize > 0) {
+            reserveFromLease(id, quantity);
+        } else {
+            reserveDirect(id, quantity);
+        }
+    }
+
+    /**
+     * Reserves every line of a cart or none of them. Lines are applied in id
+     * order so carts sharing products lock rows in the same order and cannot
+     * deadlock each other.
+     */
+    public void reserveStock(List<StockReservation> reservations) {
+        if (reservations == null || reservations.isEmpty()) {
+            throw new IllegalArgumentException("At least one reservation is required");
+        }
+        Map<Long, Integer> lines = new TreeMap<>();
+        for (StockReservation reservation : reservations) {
+            if (reservation.getProductId() == null) {
+                throw new IllegalArgumentException("productId is required");
+            }
+            requirePositive(reservation.getQuantity());
+            lines.merge(reservation.getProductId(), reservation.getQuantity(), Integer::sum);
+        }
+        // Give leased units back first (in their own transactions) so the all-or-nothing check sees them.
+        if (leaseSize > 0) {
+            lines.keySet().forEach(this::returnLease);
+        }
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> lines.forEach((id, quantity) -> {
+            if (!decrementStock(id, quantity)) {
+                throw stockFailure(id);
+            }
+        }));
+    }
+
+    @Scheduled(fixedDelayString = "${product.reserve.lease-flush-interval:1s}")
+    @PreDestroy
+    public void returnUnusedLeases() {
+        for (Long id : stockLeases.ids()) {
+            returnLease(id);
+        }
+    }
+
+    // For products deleted outside this service; call after the delete commits.
+    void discardLeases(List<Long> ids) {
+        ids.forEach(stockLeases::discard);
+    }
+
+    private void reserveFromLease(Long id, int quantity) {
+        if (stockLeases.tryTake(id, quantity)) {
+            return;
+        }
+        if (stockLeases.isShort(id, quantity)) {
+            throw new InsufficientStockException("Not enough stock for product " + id);
+        }
+        if (!stockLeases.isLow(id)) {
+            Lock lock = stockLeases.lockFor(id);
+            lock.lock();
+            try {
+                if (stockLeases.tryTake(id, quantity)) {
+                    return;
+                }
+                if (leaseSize > quantity && decrementStock(id, leaseSize)) {
+                    stockLeases.add(id, leaseSize - quantity);
+                    return;
+                }
+                stockLeases.markLow(id);
+            } finally {
+                lock.unlock();
+            }
+        }
+        // Less than a full lease is left: take exactly what was asked for.
+        if (!decrementStock(id, quantity)) {
+            stockLeases.markShort(id, quantity);
+            throw stockFailure(id);
+        }
+    }
+
+    private void reserveDirect(Long id, int quantity) {
+        if (!decrementStock(id, quantity)) {
+            throw stockFailure(id);
+        }
+    }
+
+    private void returnLease(Long id) {
+        stockLeases.clearLow(id);
+        int unused = stockLeases.drain(id);
+        if (unused > 0) {
+            writeStock(id, unused, now -> productRepository.incrementStock(id, unused, now));
+        }
+    }
+
+    private boolean decrementStock(Long id, int quantity) {
+        return writeStock(id, -quantity, now -> productRepository.decrementStock(id, quantity, now));
+    }
+
+    // Runs in the caller's transaction or a new one, so the stock write and its outbox event commit together.
+    private boolean writeStock(Long id, int delta, ToIntFunction<Instant> write) {
+        Instant now = Instant.now();
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            if (write.applyAsInt(now) == 0) {
+                return false;
+            }
+            productRepository.findDTOById(id).ifPresent(product -> outbox.productChanged(Outbox.UPDATED, product));
+            AfterCommit.run(() -> stockChanged(id, delta, now));
+            return true;
+        });
+    }
+
+    private void stockChanged(Long id, int delta, Instant now) {
+        // Forgotten before invalidating, so a read joining an older query cannot cache its result.
+        productReads.forget(id);
+        productReads.forget(new VersionKey(id));
+        productCache.invalidate(id);
+        responseCache.invalidateAll();
+        searchIndex.adjustStock(id, delta, now);
+        categoryStats.stockChanged(id);
+    }
+
+    // Concurrent identical reads share one query, except for clients reading their own writes from the primary.
+    private <V> V coalesce(Object key, Supplier<V> loader) {
+        return ReadYourWrites.isSticky() ? loader.get() : productReads.execute(key, loader);
+    }
+
+    // MySQL reads a whole result set into memory unless the fetch size is Integer.MIN_VALUE, which streams it row
+    // by row for this statement only; other databases use a positive fetch size.
+    private int streamFetchSize() {
+        Dialect dialect = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect();
+        return dialect instanceof MySQLDialect ? Integer.MIN_VALUE : STREAM_FETCH_SIZE;
+    }
+
+    private RuntimeException stockFailure(Long id) {
+        if (!productRepository.existsById(id)) {
+            return new ResourceNotFoundException("Product not found with id " + id);
+        }
+        return new InsufficientStockException("Not enough stock for product " + id);
+    }
+
+    private static void requirePositive(int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("quantity must be positive");
+        }
+    }
 
-    private ProductDTO mapToDTO(Product product) {
+    ProductDTO mapToDTO(Product product) {
         ProductDTO productDTO = new ProductDTO();
         productDTO.setId(product.getId());
         productDTO.setName(product.getName());
@@ -96,6 +592,8 @@ public class ProductService {
         productDTO.setPrice(product.getPrice());
         productDTO.setStatus(product.getStatus());
         productDTO.setQuantity(product.getQuantity());
+        productDTO.setVersion(product.getVersion());
+        productDTO.setUpdatedAt(product.getUpdatedAt());
 
         ProductDTO.CategoryDTO categoryDTO = new ProductDTO.CategoryDTO();
         categoryDTO.setId(product.getCategory().getId());
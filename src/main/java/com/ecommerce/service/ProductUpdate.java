@@ -0,0 +1,12 @@
+package com.ecommerce.service;
+
+import java.time.Instant;
+
+/**
+ * A full product update accepted in write-behind mode, as journaled and later
+ * written to the database. Later updates to the same product replace earlier
+ * ones.
+ */
+public record ProductUpdate(Long id, String name, String description, Double price, Integer quantity,
+                            Long categoryId, Instant receivedAt) {
+}
@@ -0,0 +1,131 @@
+package com.ecommerce.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Append-only journal of write-behind updates, one JSON line per update, split
+ * into numbered segments. Each flush starts a new segment; segments older than
+ * the current one are deleted once their updates are in the database.
+ */
+class ProductUpdateJournal implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(ProductUpdateJournal.class);
+
+    private static final String PREFIX = "products-";
+    private static final String SUFFIX = ".journal";
+
+    private final Path directory;
+    private final boolean fsync;
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private long segment;
+    private FileChannel channel;
+
+    ProductUpdateJournal(Path directory, boolean fsync) throws IOException {
+        this.directory = directory;
+        this.fsync = fsync;
+        Files.createDirectories(directory);
+        List<Long> existing = segments();
+        segment = existing.isEmpty() ? 0 : existing.get(existing.size() - 1);
+    }
+
+    /** Reads every update left by a previous run, oldest first, then starts a new segment. */
+    synchronized void replay(Consumer<ProductUpdate> consumer) throws IOException {
+        for (Long number : segments()) {
+            try (BufferedReader reader = Files.newBufferedReader(path(number))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    try {
+                        consumer.accept(objectMapper.readValue(line, ProductUpdate.class));
+                    } catch (JsonProcessingException e) {
+                        // Only the write interrupted by a crash can be torn; it was never acknowledged.
+                        log.warn("Skipping unreadable journal entry in {}", path(number));
+                    }
+                }
+            }
+        }
+        rotate();
+    }
+
+    /** Returns once the update is in the journal (and on disk, with fsync). */
+    synchronized void append(ProductUpdate update) {
+        try {
+            if (channel == null) {
+                rotate();
+            }
+            byte[] line = (objectMapper.writeValueAsString(update) + "\n").getBytes();
+            ByteBuffer buffer = ByteBuffer.wrap(line);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (fsync) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write product update journal", e);
+        }
+    }
+
+    /** Starts a new segment and returns its number; updates appended before it are in older segments. */
+    synchronized long rotate() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+        segment++;
+        channel = FileChannel.open(path(segment), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        return segment;
+    }
+
+    /** Deletes the segments before {@code segment}. */
+    synchronized void deleteBefore(long segment) throws IOException {
+        for (Long number : segments()) {
+            if (number < segment) {
+                Files.deleteIfExists(path(number));
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private List<Long> segments() throws IOException {
+        List<Long> numbers = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith(PREFIX) && name.endsWith(SUFFIX))
+                    .forEach(name -> numbers.add(Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()))));
+        }
+        numbers.sort(null);
+        return numbers;
+    }
+
+    private Path path(long number) {
+        return directory.resolve(PREFIX + number + SUFFIX);
+    }
+}
@@ -0,0 +1,147 @@
+package com.ecommerce.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.ecommerce.entity.Product;
+import com.ecommerce.repo.CategoryRepo;
+import com.ecommerce.repo.ProductRepo;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Opt-in write-behind for high-frequency product updates. An update is
+ * acknowledged once it is in the local journal. Updates to the same product
+ * are coalesced in memory, and the latest of each is written to the database
+ * in one JDBC batch per flush. Updates left in the journal by a crash are
+ * replayed at startup.
+ */
+@Service
+@ConditionalOnProperty(name = "product.write-behind.enabled", havingValue = "true")
+public class ProductWriteBehind {
+    private static final Logger log = LoggerFactory.getLogger(ProductWriteBehind.class);
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryRepo categoryRepo;
+
+    @Autowired
+    private ProductRepo productRepo;
+
+    @Value("${product.write-behind.journal-dir:data/write-behind}")
+    private Path journalDir;
+
+    @Value("${product.write-behind.fsync:true}")
+    private boolean fsync;
+
+    private ProductUpdateJournal journal;
+
+    // Guarded by this; swapped out whole by each flush.
+    private Map<Long, ProductUpdate> pending = new LinkedHashMap<>();
+
+    @PostConstruct
+    void recover() throws IOException {
+        journal = new ProductUpdateJournal(journalDir, fsync);
+        journal.replay(update -> pending.put(update.id(), update));
+        if (!pending.isEmpty()) {
+            log.info("Recovered {} unflushed product updates from {}", pending.size(), journalDir);
+        }
+    }
+
+    /**
+     * Journals the update and queues it for the next flush. Everything the
+     * flush cannot write is rejected now, before the update is acknowledged;
+     * only a product deleted before the flush is skipped then.
+     */
+    public void submit(Long id, Product product) {
+        if (product.getName() == null || product.getName().isBlank()) {
+            throw new IllegalArgumentException("name is required");
+        }
+        if (product.getPrice() == null) {
+            throw new IllegalArgumentException("price is required");
+        }
+        if (product.getQuantity() == null) {
+            throw new IllegalArgumentException("quantity is required");
+        }
+        if (product.getCategory() == null || product.getCategory().getId() == null) {
+            throw new IllegalArgumentException("category.id is required");
+        }
+        Long categoryId = product.getCategory().getId();
+        if (!categoryRepo.existsById(categoryId)) {
+            throw new IllegalArgumentException("Category not found with id " + categoryId);
+        }
+        if (!productRepo.existsById(id)) {
+            throw new ProductService.ResourceNotFoundException("Product not found with id " + id);
+        }
+        ProductUpdate update = new ProductUpdate(id, product.getName(), product.getDescription(), product.getPrice(),
+                product.getQuantity(), categoryId, Instant.now());
+        // Journal and queue under one lock, so a flush never deletes a segment holding an unqueued update.
+        synchronized (this) {
+            journal.append(update);
+            pending.put(id, update);
+        }
+    }
+
+    public synchronized int pendingCount() {
+        return pending.size();
+    }
+
+    @Scheduled(fixedDelayString = "${product.write-behind.flush-interval:200ms}")
+    @PreDestroy
+    public void flush() throws IOException {
+        Map<Long, ProductUpdate> batch;
+        long segment;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new LinkedHashMap<>();
+            segment = journal.rotate();
+        }
+        try {
+            write(new ArrayList<>(batch.values()));
+        } catch (RuntimeException e) {
+            log.warn("Writing {} product updates failed; retrying on the next flush", batch.size(), e);
+            synchronized (this) {
+                // Newer updates that arrived meanwhile win over the failed ones.
+                batch.forEach(pending::putIfAbsent);
+            }
+            return;
+        }
+        journal.deleteBefore(segment);
+    }
+
+    private void write(List<ProductUpdate> updates) {
+        try {
+            productService.applyUpdates(updates);
+        } catch (DataIntegrityViolationException e) {
+            // One bad row (e.g. its category was deleted since) fails the batch; isolate it.
+            for (ProductUpdate update : updates) {
+                try {
+                    productService.applyUpdates(List.of(update));
+                } catch (DataIntegrityViolationException rowFailure) {
+                    log.warn("Dropping write-behind update of product {}: {}", update.id(),
+                            rowFailure.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+}
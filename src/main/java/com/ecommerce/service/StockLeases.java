@@ -0,0 +1,93 @@
+package com.ecommerce.service;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Units already taken out of {@code product.quantity} in bulk and handed out to
+ * reservations from memory. Because leased units are decremented in the
+ * database first, the buffer can hold stock back for a while but never sell
+ * more than exists.
+ */
+final class StockLeases {
+
+    private static final int STRIPES = 64;
+
+    private final ConcurrentHashMap<Long, AtomicInteger> available = new ConcurrentHashMap<>();
+    // Products with less stock left than a full lease, mapped to the smallest quantity already
+    // refused. Stock only goes down until their leases are next returned, so the refusal stands until then.
+    private final ConcurrentHashMap<Long, Integer> low = new ConcurrentHashMap<>();
+    private final Lock[] locks = new Lock[STRIPES];
+
+    StockLeases() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    boolean tryTake(Long id, int quantity) {
+        AtomicInteger units = available.get(id);
+        if (units == null) {
+            return false;
+        }
+        int current;
+        do {
+            current = units.get();
+            if (current < quantity) {
+                return false;
+            }
+        } while (!units.compareAndSet(current, current - quantity));
+        return true;
+    }
+
+    void add(Long id, int quantity) {
+        available.computeIfAbsent(id, key -> new AtomicInteger()).addAndGet(quantity);
+    }
+
+    /** Removes and returns the unused units leased for {@code id}. */
+    int drain(Long id) {
+        AtomicInteger units = available.get(id);
+        return units == null ? 0 : units.getAndSet(0);
+    }
+
+    void discard(Long id) {
+        available.remove(id);
+        low.remove(id);
+    }
+
+    boolean isLow(Long id) {
+        return low.containsKey(id);
+    }
+
+    boolean isShort(Long id, int quantity) {
+        Integer refused = low.get(id);
+        return refused != null && quantity >= refused;
+    }
+
+    void markLow(Long id) {
+        low.putIfAbsent(id, Integer.MAX_VALUE);
+    }
+
+    void markShort(Long id, int quantity) {
+        low.merge(id, quantity, Math::min);
+    }
+
+    void clearLow(Long id) {
+        low.remove(id);
+    }
+
+    Set<Long> ids() {
+        Set<Long> ids = new HashSet<>(available.keySet());
+        ids.addAll(low.keySet());
+        return ids;
+    }
+
+    // Serializes lease refills per product without one lock per product; a lock, not a monitor, so virtual threads do not pin.
+    Lock lockFor(Long id) {
+        return locks[Math.floorMod(id.hashCode(), STRIPES)];
+    }
+}
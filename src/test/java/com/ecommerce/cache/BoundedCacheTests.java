@@ -0,0 +1,84 @@
+package com.ecommerce.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class BoundedCacheTests {
+
+	private final AtomicLong clock = new AtomicLong();
+
+	@Test
+	void evictsLeastRecentlyUsedWhenEntryBoundIsExceeded() {
+		BoundedCache<Integer, String> cache = new BoundedCache<>(2, 1000, Duration.ofMinutes(1), v -> 1, clock::get);
+		cache.put(1, "a");
+		cache.put(2, "b");
+		cache.get(1);
+		cache.put(3, "c");
+
+		assertThat(cache.get(2)).isNull();
+		assertThat(cache.get(1)).isEqualTo("a");
+		assertThat(cache.stats().evictions()).isEqualTo(1);
+	}
+
+	@Test
+	void evictsWhenWeightBoundIsExceeded() {
+		BoundedCache<Integer, String> cache = new BoundedCache<>(100, 10, Duration.ofMinutes(1), String::length, clock::get);
+		cache.put(1, "aaaa");
+		cache.put(2, "bbbb");
+		cache.put(3, "cccc");
+
+		assertThat(cache.size()).isEqualTo(2);
+		assertThat(cache.weight()).isEqualTo(8);
+		assertThat(cache.get(1)).isNull();
+	}
+
+	@Test
+	void expiresEntriesAfterTtl() {
+		BoundedCache<Integer, String> cache = new BoundedCache<>(10, 100, Duration.ofSeconds(5), v -> 1, clock::get);
+		cache.put(1, "a");
+		clock.addAndGet(Duration.ofSeconds(5).toNanos());
+
+		assertThat(cache.get(1)).isNull();
+		assertThat(cache.stats().expirations()).isEqualTo(1);
+	}
+
+	@Test
+	void readThroughDoesNotCacheValueLoadedBeforeInvalidation() {
+		BoundedCache<Integer, String> cache = new BoundedCache<>(10, 100, Duration.ofMinutes(1), v -> 1, clock::get);
+
+		String loaded = cache.get(1, key -> {
+			cache.invalidate(key);
+			return "stale";
+		});
+
+		assertThat(loaded).isEqualTo("stale");
+		assertThat(cache.get(1)).isNull();
+		assertThat(cache.get(1, key -> "fresh")).isEqualTo("fresh");
+		assertThat(cache.get(1)).isEqualTo("fresh");
+	}
+
+	@Test
+	void bulkReadThroughLoadsOnlyMissingKeysInOneCall() {
+		BoundedCache<Integer, String> cache = new BoundedCache<>(10, 100, Duration.ofMinutes(1), v -> 1, clock::get);
+		cache.put(1, "a");
+		List<Set<Integer>> calls = new ArrayList<>();
+
+		Map<Integer, String> values = cache.getAll(List.of(1, 2, 3), missing -> {
+			calls.add(Set.copyOf(missing));
+			return Map.of(2, "b");
+		});
+
+		assertThat(values).containsOnly(Map.entry(1, "a"), Map.entry(2, "b"));
+		assertThat(calls).containsExactly(Set.of(2, 3));
+		assertThat(cache.get(2)).isEqualTo("b");
+		assertThat(cache.get(3)).isNull();
+	}
+}
@@ -0,0 +1,114 @@
+package com.ecommerce.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTests {
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void concurrentCallersShareOneLoad() throws Exception {
+		SingleFlight singleFlight = new SingleFlight("test", Duration.ofSeconds(5));
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger loads = new AtomicInteger();
+
+		Future<String> leader = executor.submit(() -> singleFlight.execute(1L, () -> {
+			loads.incrementAndGet();
+			await(release);
+			return "value";
+		}));
+		waitUntilInFlight(singleFlight);
+		List<Future<String>> followers = new ArrayList<>();
+		for (int i = 0; i < 7; i++) {
+			followers.add(executor.submit(() -> singleFlight.execute(1L, () -> {
+				loads.incrementAndGet();
+				return "other";
+			})));
+		}
+		while (singleFlight.collapsedCount() < 7) {
+			Thread.onSpinWait();
+		}
+		release.countDown();
+
+		assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+		for (Future<String> follower : followers) {
+			assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+		}
+		assertThat(loads).hasValue(1);
+		assertThat(singleFlight.executedCount()).isEqualTo(1);
+		assertThat(singleFlight.inFlight()).isZero();
+	}
+
+	@Test
+	void failureReachesEveryWaiterAndIsNotRemembered() throws Exception {
+		SingleFlight singleFlight = new SingleFlight("test", Duration.ofSeconds(5));
+		CountDownLatch release = new CountDownLatch(1);
+
+		Future<Object> leader = executor.submit(() -> singleFlight.execute(1L, () -> {
+			await(release);
+			throw new IllegalStateException("database down");
+		}));
+		waitUntilInFlight(singleFlight);
+		Future<Object> follower = executor.submit(() -> singleFlight.execute(1L, () -> "other"));
+		while (singleFlight.collapsedCount() < 1) {
+			Thread.onSpinWait();
+		}
+		release.countDown();
+
+		assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+		assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("database down");
+		assertThat(singleFlight.<String>execute(1L, () -> "recovered")).isEqualTo("recovered");
+	}
+
+	@Test
+	void waiterGivesUpAfterTimeout() throws Exception {
+		SingleFlight singleFlight = new SingleFlight("test", Duration.ofMillis(50));
+		CountDownLatch release = new CountDownLatch(1);
+
+		Future<String> leader = executor.submit(() -> singleFlight.execute(1L, () -> {
+			await(release);
+			return "slow";
+		}));
+		waitUntilInFlight(singleFlight);
+
+		assertThatThrownBy(() -> singleFlight.execute(1L, () -> "other")).isInstanceOf(SingleFlightTimeoutException.class);
+		assertThat(singleFlight.timeoutCount()).isEqualTo(1);
+
+		release.countDown();
+		assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("slow");
+	}
+
+	private static void waitUntilInFlight(SingleFlight singleFlight) {
+		while (singleFlight.inFlight() == 0) {
+			Thread.onSpinWait();
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,49 @@
+package com.ecommerce.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+class AdmissionLimitFilterTests {
+
+	private final AdmissionLimitFilter filter = new AdmissionLimitFilter(1, Duration.ofMillis(10));
+
+	@Test
+	void synchronousRequestsReleaseTheirPermitOnReturn() throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(new MockHttpServletRequest("GET", "/api/products"), response, new MockFilterChain());
+
+		assertThat(response.getStatus()).isEqualTo(200);
+		assertThat(filter.availablePermits()).isEqualTo(1);
+	}
+
+	@Test
+	void asyncRequestsHoldTheirPermitUntilTheyComplete() throws Exception {
+		MockHttpServletRequest export = new MockHttpServletRequest("GET", "/api/products/export");
+		export.setAsyncSupported(true);
+		HttpServlet streaming = new HttpServlet() {
+			@Override
+			protected void doGet(HttpServletRequest request, HttpServletResponse response) {
+				request.startAsync();
+			}
+		};
+		filter.doFilter(export, new MockHttpServletResponse(), new MockFilterChain(streaming));
+
+		assertThat(filter.availablePermits()).isZero();
+		MockHttpServletResponse rejected = new MockHttpServletResponse();
+		filter.doFilter(new MockHttpServletRequest("GET", "/api/products"), rejected, new MockFilterChain());
+		assertThat(rejected.getStatus()).isEqualTo(503);
+
+		export.getAsyncContext().complete();
+		assertThat(filter.availablePermits()).isEqualTo(1);
+	}
+}
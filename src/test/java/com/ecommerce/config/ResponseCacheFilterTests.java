@@ -0,0 +1,91 @@
+package com.ecommerce.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.ecommerce.cache.ResponseCache;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+class ResponseCacheFilterTests {
+
+	private final AtomicInteger renders = new AtomicInteger();
+
+	private final ResponseCache cache = new ResponseCache(16, 1 << 20, Duration.ofMinutes(1));
+
+	private final ResponseCacheFilter filter = new ResponseCacheFilter(cache,
+			Map.of("/api/products", Set.of("page", "size", "sort")), 1);
+
+	private final HttpServlet controller = new HttpServlet() {
+		@Override
+		protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+			response.setContentType("application/json");
+			response.getWriter().write("{\"content\":[],\"render\":" + renders.incrementAndGet() + "}");
+		}
+	};
+
+	@Test
+	void hitsAreServedPreCompressedWithoutRendering() throws Exception {
+		MockHttpServletResponse first = get("page=0&size=3", null);
+		MockHttpServletResponse second = get("size=3&page=0", "gzip, deflate");
+
+		assertThat(renders).hasValue(1);
+		assertThat(first.getContentAsString()).isEqualTo("{\"content\":[],\"render\":1}");
+		assertThat(second.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+		assertThat(gunzip(second.getContentAsByteArray())).isEqualTo(first.getContentAsString());
+		assertThat(cache.hitCount()).isEqualTo(1);
+		assertThat(cache.savedSeconds()).isPositive();
+
+		cache.invalidateAll();
+		assertThat(get("page=0&size=3", null).getContentAsString()).contains("\"render\":2");
+	}
+
+	@Test
+	void filteredAndDeepPagesBypassTheCache() throws Exception {
+		get("page=0&status=Available", null);
+		get("page=0&status=Available", null);
+		get("page=5", null);
+		get("page=5", null);
+
+		assertThat(renders).hasValue(4);
+		assertThat(cache.bypassCount()).isEqualTo(4);
+		assertThat(cache.size()).isZero();
+	}
+
+	private MockHttpServletResponse get(String query, String acceptEncoding) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products");
+		request.setQueryString(query);
+		for (String param : query.split("&")) {
+			String[] pair = param.split("=");
+			request.addParameter(pair[0], pair[1]);
+		}
+		if (acceptEncoding != null) {
+			request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+		}
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, new MockFilterChain(controller));
+		return response;
+	}
+
+	private static String gunzip(byte[] body) throws IOException {
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+			return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+}
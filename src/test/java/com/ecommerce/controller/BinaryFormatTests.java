@@ -0,0 +1,90 @@
+package com.ecommerce.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.ecommerce.config.WebConfig;
+import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.service.CatalogExportService;
+import com.ecommerce.service.PriceHistoryService;
+import com.ecommerce.service.ProductImportService;
+import com.ecommerce.service.ProductService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+
+@WebMvcTest(ProductController.class)
+@Import(WebConfig.class)
+class BinaryFormatTests {
+
+	private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@MockitoBean
+	private ProductService productService;
+
+	@MockitoBean
+	private ProductImportService productImportService;
+
+	@MockitoBean
+	private CatalogExportService catalogExportService;
+
+	@MockitoBean
+	private PriceHistoryService priceHistoryService;
+
+	@BeforeEach
+	void setUp() {
+		List<ProductDTO> products = new ArrayList<>();
+		for (long i = 1; i <= 20; i++) {
+			products.add(new ProductDTO(i, "Smartphone " + i, "Latest model", 299.99, "Available", 50, 3L,
+					Instant.parse("2024-12-01T10:15:30Z"), 7L, "Electronics"));
+		}
+		when(productService.getProducts(any(), anyInt(), anyInt(), isNull()))
+				.thenReturn(new PageImpl<>(products, PageRequest.of(0, 20), 100));
+	}
+
+	@Test
+	void pagesAreEncodedInTheNegotiatedFormatWithTheJsonModel() throws Exception {
+		byte[] json = fetch(MediaType.APPLICATION_JSON);
+		byte[] smile = fetch(SMILE);
+		byte[] cbor = fetch(MediaType.APPLICATION_CBOR);
+
+		JsonNode expected = new ObjectMapper().readTree(json);
+		assertThat(expected.at("/page/totalElements").asInt()).isEqualTo(100);
+		assertThat(new SmileMapper().readTree(smile)).isEqualTo(expected);
+		assertThat(new CBORMapper().readTree(cbor)).isEqualTo(expected);
+		assertThat(smile.length).isLessThan(json.length);
+		assertThat(cbor.length).isLessThan(json.length);
+	}
+
+	private byte[] fetch(MediaType mediaType) throws Exception {
+		return mockMvc.perform(get("/api/products").param("size", "20").accept(mediaType))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(mediaType))
+				.andReturn().getResponse().getContentAsByteArray();
+	}
+}
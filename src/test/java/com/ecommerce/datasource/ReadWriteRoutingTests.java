@@ -0,0 +1,132 @@
+package com.ecommerce.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ecommerce.config.CacheConfig;
+import com.ecommerce.entity.Category;
+import com.ecommerce.entity.Product;
+import com.ecommerce.outbox.Outbox;
+import com.ecommerce.search.ProductSearchIndex;
+import com.ecommerce.service.CategoryService;
+import com.ecommerce.service.CategoryStatsService;
+import com.ecommerce.service.PriceHistoryService;
+import com.ecommerce.service.ProductService;
+
+// Two in-memory H2 databases stand in for primary and replica; "replication" copies the primary with SCRIPT.
+@DataJpaTest(properties = {
+		"app.datasource.routing.enabled=true",
+		"spring.datasource.url=jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"app.datasource.replicas[0].url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+		"app.datasource.lag-query=select seconds from replication_lag",
+		"app.datasource.max-lag=5s",
+		"spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+		"spring.jpa.properties.hibernate.cache.use_query_cache=false" })
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ ReadWriteRoutingConfig.class, ProductService.class, CategoryService.class, CacheConfig.class, Outbox.class, CategoryStatsService.class, PriceHistoryService.class,
+		ProductSearchIndex.class })
+class ReadWriteRoutingTests {
+
+	private final JdbcTemplate primary = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:primary", "sa", ""));
+	private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:replica", "sa", ""));
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private CategoryService categoryService;
+
+	@Autowired
+	private ReplicaPool replicaPool;
+
+	private Category category;
+
+	@BeforeEach
+	void setUp() {
+		primary.execute("create table if not exists replication_lag (seconds int)");
+		primary.update("delete from replication_lag");
+		primary.update("insert into replication_lag values (0)");
+		Category newCategory = new Category();
+		newCategory.setName("books");
+		category = categoryService.createCategory(newCategory);
+		createProduct("first");
+		replicate();
+		replicaPool.checkReplicas();
+	}
+
+	@AfterEach
+	void tearDown() {
+		primary.update("delete from product");
+		primary.update("delete from categories");
+	}
+
+	@Test
+	void readOnlyTransactionsUseTheReplica() {
+		createProduct("second");
+
+		assertThat(productService.getAllProducts(0, 10).getTotalElements()).isEqualTo(1);
+
+		replicate();
+		assertThat(productService.getAllProducts(0, 10).getTotalElements()).isEqualTo(2);
+	}
+
+	@Test
+	void stickyThreadsReadFromThePrimary() {
+		createProduct("second");
+
+		ReadYourWrites.stick();
+		try {
+			assertThat(productService.getAllProducts(0, 10).getTotalElements()).isEqualTo(2);
+		} finally {
+			ReadYourWrites.release();
+		}
+	}
+
+	@Test
+	void laggingReplicaIsTakenOutOfRotationUntilItCatchesUp() {
+		createProduct("second");
+		replica.update("update replication_lag set seconds = 60");
+		replicaPool.checkReplicas();
+
+		assertThat(replicaPool.status()).singleElement().satisfies(s -> assertThat(s.healthy()).isFalse());
+		assertThat(productService.getAllProducts(0, 10).getTotalElements()).isEqualTo(2);
+
+		replica.update("update replication_lag set seconds = 0");
+		replicaPool.checkReplicas();
+
+		assertThat(productService.getAllProducts(0, 10).getTotalElements()).isEqualTo(1);
+	}
+
+	private void createProduct(String name) {
+		Product product = new Product();
+		product.setName(name);
+		product.setPrice(10.0);
+		product.setQuantity(1);
+		product.setStatus("Available");
+		product.setCategory(category);
+		productService.createProduct(product);
+	}
+
+	private void replicate() {
+		List<String> script = primary.queryForList("script", String.class);
+		replica.execute("drop all objects");
+		script.forEach(replica::execute);
+	}
+}
@@ -0,0 +1,187 @@
+package com.ecommerce.outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ecommerce.config.CacheConfig;
+import com.ecommerce.dto.ChangeEvent;
+import com.ecommerce.dto.ChangeFeed;
+import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.entity.Category;
+import com.ecommerce.entity.Product;
+import com.ecommerce.repo.CategoryRepo;
+import com.ecommerce.repo.OutboxEventRepo;
+import com.ecommerce.repo.ProductRepo;
+import com.ecommerce.search.ProductSearchIndex;
+import com.ecommerce.service.CategoryService;
+import com.ecommerce.service.CategoryStatsService;
+import com.ecommerce.service.PriceHistoryService;
+import com.ecommerce.service.ProductService;
+
+// Each service call commits on its own, as in production, so the relay sees only committed events.
+@DataJpaTest(properties = { "outbox.sink=memory", "outbox.relay.interval=1h", "outbox.purge-interval=1h" })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ ProductService.class, CategoryService.class, CacheConfig.class, ProductSearchIndex.class, Outbox.class, CategoryStatsService.class, PriceHistoryService.class,
+		OutboxRelay.class, OutboxConfig.class })
+class OutboxTests {
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private CategoryService categoryService;
+
+	@Autowired
+	private Outbox outbox;
+
+	@Autowired
+	private OutboxRelay relay;
+
+	@Autowired
+	private InMemoryChangeEventSink sink;
+
+	@Autowired
+	private OutboxEventRepo outboxEventRepo;
+
+	@Autowired
+	private ProductRepo productRepo;
+
+	@Autowired
+	private CategoryRepo categoryRepo;
+
+	private Category category;
+
+	@BeforeEach
+	void setUp() {
+		Category books = new Category();
+		books.setName("books");
+		category = categoryService.createCategory(books);
+	}
+
+	@AfterEach
+	void tearDown() {
+		productRepo.deleteAll();
+		categoryRepo.deleteAll();
+		outboxEventRepo.deleteAll();
+		sink.clear();
+	}
+
+	@Test
+	void mutationsArePublishedInOrderAndServedIncrementally() {
+		ProductDTO created = productService.createProduct(product("Dune"));
+		Product change = product("Dune Messiah");
+		productService.updateProduct(created.getId(), change, null);
+		productService.deleteProduct(created.getId());
+		relay.relay();
+
+		assertThat(sink.getEvents()).extracting(ChangeEvent::position).containsExactly(1L, 2L, 3L, 4L);
+		assertThat(sink.getEvents()).extracting(e -> e.aggregateType() + " " + e.eventType())
+				.containsExactly("CATEGORY CREATED", "PRODUCT CREATED", "PRODUCT UPDATED", "PRODUCT DELETED");
+		assertThat(sink.getEvents().get(2).payload()).contains("\"name\":\"Dune Messiah\"");
+
+		ChangeFeed first = outbox.changesSince(0, 3);
+		assertThat(first.events()).hasSize(3);
+		assertThat(first.hasMore()).isTrue();
+		assertThat(first.head()).isEqualTo(4);
+		ChangeFeed rest = outbox.changesSince(first.next(), 3);
+		assertThat(rest.events()).extracting(ChangeEvent::eventType).containsExactly("DELETED");
+		assertThat(rest.hasMore()).isFalse();
+		assertThat(outbox.changesSince(rest.next(), 3).events()).isEmpty();
+	}
+
+	@Test
+	void rolledBackMutationLeavesNoEvent() {
+		Product orphan = product("Orphan");
+		orphan.getCategory().setId(-1L);
+
+		assertThatThrownBy(() -> productService.createProduct(orphan)).isInstanceOf(RuntimeException.class);
+		relay.relay();
+
+		assertThat(outbox.changesSince(0, 10).events()).extracting(ChangeEvent::aggregateType).containsExactly("CATEGORY");
+	}
+
+	@Test
+	void stockReservationsAndReturnedLeasesArePublished() {
+		ProductDTO created = productService.createProduct(product("Dune"));
+		productService.reserveStock(created.getId(), 2);
+		ReflectionTestUtils.setField(productService, "leaseSize", 2);
+		try {
+			productService.reserveStock(created.getId(), 1);
+			productService.returnUnusedLeases();
+		} finally {
+			ReflectionTestUtils.setField(productService, "leaseSize", 0);
+		}
+		relay.relay();
+
+		assertThat(sink.getEvents()).extracting(ChangeEvent::eventType)
+				.containsExactly("CREATED", "CREATED", "UPDATED", "UPDATED", "UPDATED");
+		assertThat(sink.getEvents().subList(2, 5)).extracting(ChangeEvent::payload).allSatisfy(
+				payload -> assertThat(payload).contains("\"id\":" + created.getId()));
+		assertThat(sink.getEvents().subList(2, 5)).extracting(ChangeEvent::payload).satisfiesExactly(
+				direct -> assertThat(direct).contains("\"quantity\":3"),
+				leased -> assertThat(leased).contains("\"quantity\":1"),
+				returned -> assertThat(returned).contains("\"quantity\":2"));
+	}
+
+	@Test
+	void concurrentRelaysPublishEachEventOnce() throws Exception {
+		for (int i = 0; i < 20; i++) {
+			productService.createProduct(product("Book " + i));
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			List<Future<?>> runs = List.of(executor.submit(relay::relay), executor.submit(relay::relay));
+			for (Future<?> run : runs) {
+				run.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		assertThat(sink.getEvents()).extracting(ChangeEvent::position)
+				.containsExactlyElementsOf(LongStream.rangeClosed(1, 21).boxed().toList());
+		assertThat(outbox.changesSince(0, 100).events()).hasSize(21);
+	}
+
+	@Test
+	void readerBehindThePurgedRangeMustResynchronize() {
+		productService.createProduct(product("Dune"));
+		relay.relay();
+		ReflectionTestUtils.setField(relay, "retention", Duration.ofMillis(-1));
+		relay.purge();
+
+		assertThatThrownBy(() -> outbox.changesSince(0, 10)).isInstanceOf(ChangesExpiredException.class);
+		productService.createProduct(product("Emma"));
+		relay.relay();
+		assertThat(outbox.changesSince(2, 10).events()).extracting(ChangeEvent::position).containsExactly(3L);
+	}
+
+	private Product product(String name) {
+		Product product = new Product();
+		product.setName(name);
+		product.setPrice(9.99);
+		product.setQuantity(5);
+		product.setStatus("Available");
+		Category ref = new Category();
+		ref.setId(category.getId());
+		product.setCategory(ref);
+		return product;
+	}
+}
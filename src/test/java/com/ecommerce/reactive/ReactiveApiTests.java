@@ -0,0 +1,128 @@
+package com.ecommerce.reactive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.ecommerce.dto.ProductDTO;
+
+import reactor.test.StepVerifier;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"spring.config.name=reactive",
+		"spring.main.web-application-type=reactive",
+		"spring.r2dbc.url=r2dbc:h2:mem:///reactive;DB_CLOSE_DELAY=-1",
+		"spring.r2dbc.username=sa",
+		"spring.r2dbc.password=",
+		"spring.sql.init.mode=always",
+		"spring.sql.init.schema-locations=classpath:reactive-schema.sql" })
+class ReactiveApiTests {
+
+	@Autowired
+	private WebTestClient client;
+
+	@Autowired
+	private DatabaseClient databaseClient;
+
+	@Autowired
+	private ReactiveProductService productService;
+
+	private Long categoryId;
+
+	@BeforeEach
+	void setUp() {
+		databaseClient.sql("delete from product").then().block();
+		databaseClient.sql("delete from categories").then().block();
+		categoryId = databaseClient.sql("insert into categories (name, version) values ('Books', 0)")
+				.filter(statement -> statement.returnGeneratedValues("id"))
+				.map(row -> row.get("id", Long.class))
+				.one().block();
+	}
+
+	@Test
+	void productReadsMatchServletApi() {
+		client.get().uri("/api/products").exchange().expectStatus().isNoContent();
+
+		Long id = insertProduct("Dune", 10);
+		client.get().uri("/api/products?page=0&size=3").exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("$.content[0].name").isEqualTo("Dune")
+				.jsonPath("$.content[0].category.name").isEqualTo("Books")
+				.jsonPath("$.page.totalElements").isEqualTo(1);
+
+		String etag = client.get().uri("/api/products/{id}", id).exchange()
+				.expectStatus().isOk()
+				.expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+				.returnResult(ProductDTO.class).getResponseHeaders().getETag();
+		client.get().uri("/api/products/{id}", id).header(HttpHeaders.IF_NONE_MATCH, etag).exchange()
+				.expectStatus().isNotModified();
+		client.get().uri("/api/products/{id}", id + 1).exchange().expectStatus().isNotFound();
+	}
+
+	@Test
+	void categoryEmbedsItsProducts() {
+		insertProduct("Dune", 10);
+
+		client.get().uri("/api/categories/{id}", categoryId).exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("$.name").isEqualTo("Books")
+				.jsonPath("$.products[0].name").isEqualTo("Dune");
+	}
+
+	@Test
+	void writesAreRefused() {
+		Long id = insertProduct("Dune", 10);
+
+		client.post().uri("/api/products").bodyValue(Map.of("name", "Emma")).exchange()
+				.expectStatus().isEqualTo(HttpStatus.METHOD_NOT_ALLOWED)
+				.expectHeader().valueEquals(HttpHeaders.ALLOW, "GET,HEAD");
+		client.put().uri("/api/products/{id}", id).bodyValue(Map.of("name", "Emma")).exchange()
+				.expectStatus().isEqualTo(HttpStatus.METHOD_NOT_ALLOWED);
+		client.delete().uri("/api/categories/{id}", categoryId).exchange()
+				.expectStatus().isEqualTo(HttpStatus.METHOD_NOT_ALLOWED);
+		client.get().uri("/api/products/{id}", id).exchange()
+				.expectBody().jsonPath("$.name").isEqualTo("Dune");
+	}
+
+	@Test
+	void streamFollowsSubscriberDemand() {
+		for (int i = 0; i < 20; i++) {
+			insertProduct("Product " + i, i);
+		}
+
+		List<ProductDTO> streamed = client.get().uri("/api/products").accept(MediaType.APPLICATION_NDJSON).exchange()
+				.expectStatus().isOk()
+				.expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+				.returnResult(ProductDTO.class).getResponseBody().collectList().block();
+		assertThat(streamed).hasSize(20);
+
+		StepVerifier.create(productService.streamProducts(), 5)
+				.expectNextCount(5)
+				.thenCancel()
+				.verify();
+	}
+
+	private Long insertProduct(String name, int quantity) {
+		return databaseClient.sql("insert into product (name, price, status, quantity, category_id, version) "
+						+ "values (:name, 9.99, 'ACTIVE', :quantity, :categoryId, 0)")
+				.bind("name", name)
+				.bind("quantity", quantity)
+				.bind("categoryId", categoryId)
+				.filter(statement -> statement.returnGeneratedValues("id"))
+				.map(row -> row.get("id", Long.class))
+				.one().block();
+	}
+}
@@ -0,0 +1,91 @@
+package com.ecommerce.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import com.ecommerce.dto.ProductDTO;
+
+class ProductSearchIndexTests {
+
+	private final ProductSearchIndex index = new ProductSearchIndex();
+
+	@BeforeEach
+	void setUp() {
+		index.index(product(1L, "Red running shoes", "Lightweight shoes for road running", "Available", 10L, 0L));
+		index.index(product(2L, "Leather boots", "Waterproof boots, not for running", "Available", 10L, 0L));
+		index.index(product(3L, "Café espresso machine", "Makes strong coffee", "Out of stock", 20L, 0L));
+		index.index(product(4L, "Trail running shoes", "Grip for muddy trails", "Out of stock", 10L, 0L));
+	}
+
+	@Test
+	void ranksNameMatchesAboveDescriptionMatches() {
+		Page<ProductDTO> results = index.search("running", null, null, PageRequest.of(0, 10));
+
+		assertThat(results.getTotalElements()).isEqualTo(3);
+		assertThat(results.getContent().get(2).getId()).isEqualTo(2L);
+	}
+
+	@Test
+	void normalizesCaseAndAccents() {
+		assertThat(index.search("CAFE", null, null, PageRequest.of(0, 10)).getContent())
+				.extracting(ProductDTO::getId).containsExactly(3L);
+	}
+
+	@Test
+	void filtersByCategoryAndStatusAndPaginates() {
+		Page<ProductDTO> results = index.search("shoes", 10L, "available", PageRequest.of(0, 10));
+		assertThat(results.getContent()).extracting(ProductDTO::getId).containsExactly(1L);
+
+		Page<ProductDTO> second = index.search("running shoes", null, null, PageRequest.of(1, 1));
+		assertThat(second.getTotalElements()).isEqualTo(3);
+		assertThat(second.getContent()).hasSize(1);
+	}
+
+	@Test
+	void updatesAndRemovalsAreVisibleImmediately() {
+		index.index(product(2L, "Leather sandals", "Summer wear", "Available", 10L, 1L));
+		index.remove(4L);
+
+		assertThat(index.search("boots", null, null, PageRequest.of(0, 10)).getContent()).isEmpty();
+		assertThat(index.search("running", null, null, PageRequest.of(0, 10)).getContent())
+				.extracting(ProductDTO::getId).containsExactly(1L);
+	}
+
+	@Test
+	void indexedProductsCannotBeChangedThroughTheirReferences() {
+		ProductDTO written = product(5L, "Blue sandals", "Beach wear", "Available", 10L, 0L);
+		index.index(written);
+		written.setName("Changed after indexing");
+		index.search("sandals", null, null, PageRequest.of(0, 10)).getContent().get(0).setStatus("Out of stock");
+
+		assertThat(index.search("sandals", null, null, PageRequest.of(0, 10)).getContent())
+				.singleElement()
+				.satisfies(product -> {
+					assertThat(product.getName()).isEqualTo("Blue sandals");
+					assertThat(product.getStatus()).isEqualTo("Available");
+				});
+	}
+
+	@Test
+	void rebuildDoesNotOverwriteNewerVersionsOrResurrectDeletedProducts() {
+		index.rebuild(sink -> {
+			index.index(product(1L, "Red running shoes v2", "", "Available", 10L, 5L));
+			index.remove(3L);
+			sink.accept(product(1L, "Red running shoes", "", "Available", 10L, 4L));
+			sink.accept(product(3L, "Café espresso machine", "", "Available", 20L, 0L));
+		});
+
+		assertThat(index.isReady()).isTrue();
+		assertThat(index.search("v2", null, null, PageRequest.of(0, 10)).getContent()).hasSize(1);
+		assertThat(index.search("espresso", null, null, PageRequest.of(0, 10)).getContent()).isEmpty();
+	}
+
+	private static ProductDTO product(Long id, String name, String description, String status, Long categoryId,
+			Long version) {
+		return new ProductDTO(id, name, description, 10.0, status, 1, version, null, categoryId, "category");
+	}
+}
@@ -0,0 +1,47 @@
+package com.ecommerce.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.service.ProductService;
+
+class SearchIndexInitializerTests {
+
+	private final ProductSearchIndex index = new ProductSearchIndex();
+
+	private final AtomicInteger scans = new AtomicInteger();
+
+	// The database is down for the first two scans.
+	private final ProductService productService = new ProductService() {
+		@Override
+		public void forEachProduct(Consumer<ProductDTO> consumer) {
+			if (scans.incrementAndGet() <= 2) {
+				throw new DataAccessResourceFailureException("Connection refused");
+			}
+			consumer.accept(new ProductDTO(1L, "Red running shoes", null, 49.0, "Available", 3, 0L, null, 10L, "shoes"));
+		}
+	};
+
+	@Test
+	void failedBuildsAreRetriedUntilTheIndexIsReady() {
+		SearchIndexInitializer initializer = new SearchIndexInitializer();
+		ReflectionTestUtils.setField(initializer, "searchIndex", index);
+		ReflectionTestUtils.setField(initializer, "productService", productService);
+		ReflectionTestUtils.setField(initializer, "retryDelay", Duration.ofMillis(1));
+		ReflectionTestUtils.setField(initializer, "maxRetryDelay", Duration.ofMillis(2));
+
+		initializer.buildWithRetries();
+
+		assertThat(scans).hasValue(3);
+		assertThat(index.isReady()).isTrue();
+		assertThat(index.size()).isEqualTo(1);
+	}
+}
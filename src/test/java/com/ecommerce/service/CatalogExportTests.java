@@ -0,0 +1,99 @@
+package com.ecommerce.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import com.ecommerce.config.CacheConfig;
+import com.ecommerce.entity.Category;
+import com.ecommerce.entity.Product;
+import com.ecommerce.outbox.Outbox;
+import com.ecommerce.repo.CategoryRepo;
+import com.ecommerce.repo.ProductRepo;
+import com.ecommerce.search.ProductSearchIndex;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@DataJpaTest
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ CatalogExportService.class, ProductService.class, CacheConfig.class, Outbox.class, CategoryStatsService.class, PriceHistoryService.class,
+		ProductSearchIndex.class })
+class CatalogExportTests {
+
+	@Autowired
+	private CatalogExportService exportService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private ProductRepo productRepo;
+
+	@Autowired
+	private CategoryRepo categoryRepo;
+
+	private Category category;
+	private Long duneId;
+	private Long emmaId;
+
+	@BeforeEach
+	void setUp() {
+		category = new Category();
+		category.setName("books");
+		category = categoryRepo.save(category);
+		duneId = productRepo.save(product("Dune", "Sci-fi, classic")).getId();
+		emmaId = productRepo.save(product("Emma", "Austen's \"Emma\"")).getId();
+	}
+
+	@Test
+	void csvHasOneEscapedRowPerProductInIdOrder() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		exportService.writeCsv(out);
+
+		assertThat(out.toString(StandardCharsets.UTF_8).split("\n")).containsExactly(
+				"id,name,description,price,quantity,status,categoryId,categoryName",
+				duneId + ",Dune,\"Sci-fi, classic\",9.99,5,Available," + category.getId() + ",books",
+				emmaId + ",Emma,\"Austen's \"\"Emma\"\"\",9.99,5,Available," + category.getId() + ",books");
+	}
+
+	@Test
+	void ndjsonHasOneProductPerLine() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		exportService.writeNdjson(out);
+
+		List<JsonNode> lines = out.toString(StandardCharsets.UTF_8).lines().map(this::readTree).toList();
+		assertThat(lines).extracting(line -> line.get("id").asLong()).containsExactly(duneId, emmaId);
+		assertThat(lines).extracting(line -> line.get("description").asText())
+				.containsExactly("Sci-fi, classic", "Austen's \"Emma\"");
+		assertThat(lines).allSatisfy(line -> assertThat(line.get("category").get("name").asText()).isEqualTo("books"));
+	}
+
+	private JsonNode readTree(String line) {
+		try {
+			return objectMapper.readTree(line);
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private Product product(String name, String description) {
+		Product product = new Product();
+		product.setName(name);
+		product.setDescription(description);
+		product.setPrice(9.99);
+		product.setQuantity(5);
+		product.setStatus("Available");
+		product.setCategory(category);
+		return product;
+	}
+}
@@ -0,0 +1,185 @@
+package com.ecommerce.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ecommerce.cache.BoundedCache;
+import com.ecommerce.config.CacheConfig;
+import com.ecommerce.dto.CategoryJob;
+import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.entity.Category;
+import com.ecommerce.entity.Product;
+import com.ecommerce.outbox.Outbox;
+import com.ecommerce.repo.CategoryRepo;
+import com.ecommerce.repo.ProductRepo;
+import com.ecommerce.search.ProductSearchIndex;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Second-level cache entries are only published on commit, so each call runs in its own transaction.
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ CategoryService.class, ProductService.class, CacheConfig.class, Outbox.class, CategoryStatsService.class,
+		PriceHistoryService.class, ProductSearchIndex.class })
+class CategoryCacheTests {
+
+	@Autowired
+	private CategoryService categoryService;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private CategoryRepo categoryRepo;
+
+	@Autowired
+	private ProductRepo productRepo;
+
+	@Autowired
+	private BoundedCache<Long, ProductDTO> productCache;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	private Long id;
+
+	@BeforeEach
+	void setUp() {
+		for (String name : new String[] { "books", "games", "music" }) {
+			Category category = new Category();
+			category.setName(name);
+			Category saved = categoryRepo.save(category);
+			if (id == null) {
+				id = saved.getId();
+			}
+		}
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@AfterEach
+	void tearDown() {
+		productRepo.deleteAll();
+		categoryRepo.deleteAll();
+		entityManagerFactory.getCache().evictAll();
+	}
+
+	@Test
+	void repeatedReadsIssueNoSql() {
+		categoryService.getAllCategories(0, 10);
+		categoryService.getCategoryById(id);
+		statistics.clear();
+
+		Page<Category> page = categoryService.getAllCategories(0, 10);
+		Category category = categoryService.getCategoryById(id);
+
+		assertThat(page.getContent()).extracting(Category::getName).containsExactly("books", "games", "music");
+		assertThat(page.getTotalElements()).isEqualTo(3);
+		assertThat(category.getName()).isEqualTo("books");
+		assertThat(statistics.getPrepareStatementCount()).isZero();
+		assertThat(statistics.getQueryCacheHitCount()).isPositive();
+	}
+
+	@Test
+	void updateAndDeleteAreVisibleToCachedReads() {
+		categoryService.getAllCategories(0, 10);
+		categoryService.getCategoryById(id);
+
+		Category renamed = new Category();
+		renamed.setName("novels");
+		categoryService.updateCategory(id, renamed, null);
+
+		assertThat(categoryService.getCategoryById(id).getName()).isEqualTo("novels");
+		assertThat(categoryService.getAllCategories(0, 10).getContent()).extracting(Category::getName)
+				.containsExactly("novels", "games", "music");
+
+		categoryService.deleteCategory(id);
+
+		assertThat(categoryRepo.findById(id)).isEmpty();
+		assertThat(categoryService.getAllCategories(0, 10).getTotalElements()).isEqualTo(2);
+	}
+
+	@Test
+	void updateAcceptsTheETagOfTheCategory() {
+		// What GET /api/categories/{id} sends as ETag, echoed back as If-Match.
+		String etag = categoryService.getCategoryVersion(id).etag();
+		Category renamed = new Category();
+		renamed.setName("novels");
+
+		categoryService.updateCategory(id, renamed, etag);
+
+		assertThat(categoryService.getCategoryById(id).getName()).isEqualTo("novels");
+		assertThatThrownBy(() -> categoryService.updateCategory(id, renamed, etag))
+				.isInstanceOf(PreconditionFailedException.class);
+	}
+
+	@Test
+	void productWritesChangeTheETagOfTheirCategory() {
+		Long other = otherCategoryId();
+		String initial = categoryService.getCategoryVersion(id).etag();
+
+		ProductDTO created = productService.createProduct(product("Dune", id));
+		String afterCreate = categoryService.getCategoryVersion(id).etag();
+		assertThat(afterCreate).isNotEqualTo(initial);
+
+		String otherBeforeMove = categoryService.getCategoryVersion(other).etag();
+		categoryService.moveProducts(id, other, new CategoryJob(CategoryJob.MOVE, id, other));
+		assertThat(categoryService.getCategoryVersion(id).etag()).isNotEqualTo(afterCreate);
+		String otherAfterMove = categoryService.getCategoryVersion(other).etag();
+		assertThat(otherAfterMove).isNotEqualTo(otherBeforeMove);
+
+		productService.deleteProduct(created.getId());
+		assertThat(categoryService.getCategoryVersion(other).etag()).isNotEqualTo(otherAfterMove);
+	}
+
+	@Test
+	void renameLeavesProductRowsAndOtherCategoriesCachedProductsAlone() {
+		Long other = otherCategoryId();
+		ProductDTO renamedIn = productService.createProduct(product("Dune", id));
+		ProductDTO elsewhere = productService.createProduct(product("Doom", other));
+		productService.getProductById(renamedIn.getId());
+		productService.getProductById(elsewhere.getId());
+
+		Category renamed = new Category();
+		renamed.setName("novels");
+		categoryService.updateCategory(id, renamed, null);
+
+		assertThat(productCache.get(renamedIn.getId())).isNull();
+		assertThat(productCache.get(elsewhere.getId())).isNotNull();
+		ProductDTO reloaded = productService.getProductById(renamedIn.getId());
+		assertThat(reloaded.getCategory().getName()).isEqualTo("novels");
+		assertThat(reloaded.getVersion()).isEqualTo(renamedIn.getVersion());
+	}
+
+	private Long otherCategoryId() {
+		return categoryRepo.findAll().stream().map(Category::getId).filter(other -> !other.equals(id)).findFirst()
+				.orElseThrow();
+	}
+
+	private static Product product(String name, Long categoryId) {
+		Category category = new Category();
+		category.setId(categoryId);
+		Product product = new Product();
+		product.setName(name);
+		product.setPrice(10.0);
+		product.setQuantity(1);
+		product.setStatus("Available");
+		product.setCategory(category);
+		return product;
+	}
+}
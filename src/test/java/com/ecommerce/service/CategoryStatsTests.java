@@ -0,0 +1,215 @@
+package com.ecommerce.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ecommerce.cache.BoundedCache;
+import com.ecommerce.config.CacheConfig;
+import com.ecommerce.dto.CategoryJob;
+import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.entity.Category;
+import com.ecommerce.entity.CategoryStats;
+import com.ecommerce.entity.Product;
+import com.ecommerce.outbox.Outbox;
+import com.ecommerce.repo.CategoryRepo;
+import com.ecommerce.repo.CategoryStatsRepo;
+import com.ecommerce.repo.OutboxEventRepo;
+import com.ecommerce.repo.ProductRepo;
+import com.ecommerce.search.ProductSearchIndex;
+
+@DataJpaTest(properties = { "category.stats.refresh-interval=1h", "category.stats.reconcile-initial-delay=1h",
+		"category.bulk.chunk-size=2" })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ ProductService.class, CategoryService.class, CacheConfig.class, Outbox.class, CategoryStatsService.class, PriceHistoryService.class,
+		ProductSearchIndex.class })
+class CategoryStatsTests {
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private CategoryService categoryService;
+
+	@Autowired
+	private CategoryStatsService categoryStatsService;
+
+	@Autowired
+	private ProductRepo productRepo;
+
+	@Autowired
+	private CategoryRepo categoryRepo;
+
+	@Autowired
+	private CategoryStatsRepo categoryStatsRepo;
+
+	@Autowired
+	private OutboxEventRepo outboxEventRepo;
+
+	@Autowired
+	private BoundedCache<Long, ProductDTO> productCache;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private Category books;
+
+	private Category games;
+
+	@BeforeEach
+	void setUp() {
+		books = categoryService.createCategory(category("books"));
+		games = categoryService.createCategory(category("games"));
+	}
+
+	@AfterEach
+	void tearDown() {
+		productRepo.deleteAll();
+		categoryRepo.deleteAll();
+		categoryStatsRepo.deleteAll();
+		outboxEventRepo.deleteAll();
+	}
+
+	@Test
+	void countersFollowProductWrites() {
+		ProductDTO cheap = productService.createProduct(product("Dune", 5.0, 3, books));
+		productService.createProduct(product("Emma", 10.0, 0, books));
+		ProductDTO dear = productService.createProduct(product("Ulysses", 20.0, 1, books));
+
+		assertStats(books, 3, 2, 5.0, 20.0, 35.0 / 3);
+
+		// Raising the cheapest price and deleting the dearest product both move a bound.
+		productService.updateProduct(cheap.getId(), product("Dune", 12.0, 3, books), null);
+		productService.deleteProduct(dear.getId());
+		assertStats(books, 2, 1, 10.0, 12.0, 11.0);
+
+		productService.updateProduct(cheap.getId(), product("Dune", 12.0, 3, games), null);
+		assertStats(books, 1, 0, 10.0, 10.0, 10.0);
+		assertStats(games, 1, 1, 12.0, 12.0, 12.0);
+		assertThat(categoryService.getCategoryStats(books.getId()).getProductCount()).isEqualTo(1);
+	}
+
+	@Test
+	void reservationsAreRecountedAndReconciliationRepairsDrift() {
+		ProductDTO last = productService.createProduct(product("Dune", 5.0, 1, books));
+		productService.reserveStock(last.getId(), 1);
+		assertThat(categoryStatsService.getStats(books.getId()).getInStockCount()).isEqualTo(1);
+
+		categoryStatsService.refresh();
+		assertThat(categoryStatsService.getStats(books.getId()).getInStockCount()).isZero();
+
+		Product drift = product("Emma", 10.0, 4, games);
+		drift.setCategory(games);
+		productRepo.save(drift);
+		categoryStatsRepo.deleteById(books.getId());
+		categoryStatsService.reconcile();
+		assertStats(books, 1, 0, 5.0, 5.0, 5.0);
+		assertStats(games, 1, 1, 10.0, 10.0, 10.0);
+	}
+
+	@Test
+	void bulkMoveAndDeleteRunInChunksAndKeepStats() {
+		for (int i = 1; i <= 5; i++) {
+			productService.createProduct(product("Book " + i, i, i % 2, books));
+		}
+
+		CategoryJob move = new CategoryJob(CategoryJob.MOVE, books.getId(), games.getId());
+		categoryService.moveProducts(books.getId(), games.getId(), move);
+		assertThat(move.getProcessed()).isEqualTo(5);
+		assertThat(productRepo.countByCategoryId(games.getId())).isEqualTo(5);
+		assertStats(books, 0, 0, null, null, null);
+		assertStats(games, 5, 3, 1.0, 5.0, 3.0);
+
+		CategoryJob delete = new CategoryJob(CategoryJob.DELETE, games.getId(), null);
+		categoryService.deleteCategory(games.getId(), delete);
+		assertThat(delete.getProcessed()).isEqualTo(5);
+		assertThat(productRepo.count()).isZero();
+		assertThat(categoryRepo.existsById(games.getId())).isFalse();
+		assertThat(categoryStatsRepo.existsById(games.getId())).isFalse();
+	}
+
+	@Test
+	void bulkJobsPublishEachProductAndDropItsCachedState() {
+		List<Long> ids = new ArrayList<>();
+		for (int i = 1; i <= 5; i++) {
+			ids.add(productService.createProduct(product("Book " + i, i, 100, books)).getId());
+		}
+		ids.forEach(productService::getProductById);
+
+		CategoryJob move = new CategoryJob(CategoryJob.MOVE, books.getId(), games.getId());
+		categoryService.moveProducts(books.getId(), games.getId(), move);
+		assertThat(move.getTotal()).isEqualTo(5);
+		assertThat(move.getProcessed()).isEqualTo(5);
+		assertThat(ids).allSatisfy(id -> assertThat(productCache.get(id)).isNull());
+		assertThat(productEvents(Outbox.UPDATED)).containsExactlyInAnyOrderElementsOf(ids);
+
+		ids.forEach(productService::getProductById);
+		ReflectionTestUtils.setField(productService, "leaseSize", 10);
+		try {
+			productService.reserveStock(ids.get(0), 1);
+			CategoryJob delete = new CategoryJob(CategoryJob.DELETE, games.getId(), null);
+			categoryService.deleteCategory(games.getId(), delete);
+			assertThat(delete.getTotal()).isEqualTo(5);
+			assertThat(delete.getProcessed()).isEqualTo(5);
+		} finally {
+			ReflectionTestUtils.setField(productService, "leaseSize", 0);
+		}
+		assertThat(ids).allSatisfy(id -> assertThat(productCache.get(id)).isNull());
+		assertThat(productEvents(Outbox.DELETED)).containsExactlyInAnyOrderElementsOf(ids);
+		StockLeases leases = (StockLeases) ReflectionTestUtils.getField(productService, "stockLeases");
+		assertThat(leases.ids()).doesNotContain(ids.get(0));
+	}
+
+	// Read straight from the table: events get their feed position only once the relay publishes them.
+	private List<Long> productEvents(String eventType) {
+		return jdbcTemplate.queryForList("select aggregate_id from outbox_event where aggregate_type = ? and event_type = ?",
+				Long.class, Outbox.PRODUCT, eventType);
+	}
+
+	private void assertStats(Category category, long products, long inStock, Double min, Double max, Double average) {
+		CategoryStats stats = categoryStatsService.getStats(category.getId());
+		assertThat(stats.getProductCount()).isEqualTo(products);
+		assertThat(stats.getInStockCount()).isEqualTo(inStock);
+		assertThat(stats.getMinPrice()).isEqualTo(min);
+		assertThat(stats.getMaxPrice()).isEqualTo(max);
+		if (average == null) {
+			assertThat(stats.getAveragePrice()).isNull();
+		} else {
+			assertThat(stats.getAveragePrice()).isCloseTo(average, within(1e-9));
+		}
+		List<Category> listed = List.of(categoryRepo.findById(category.getId()).orElseThrow());
+		categoryService.attachStats(listed);
+		assertThat(listed.get(0).getStats().getProductCount()).isEqualTo(products);
+	}
+
+	private static Category category(String name) {
+		Category category = new Category();
+		category.setName(name);
+		return category;
+	}
+
+	private static Product product(String name, double price, int quantity, Category category) {
+		Product product = new Product();
+		product.setName(name);
+		product.setPrice(price);
+		product.setQuantity(quantity);
+		product.setStatus("Available");
+		Category ref = new Category();
+		ref.setId(category.getId());
+		product.setCategory(ref);
+		return product;
+	}
+}
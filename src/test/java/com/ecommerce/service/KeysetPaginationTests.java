@@ -0,0 +1,147 @@
+package com.ecommerce.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import com.ecommerce.config.CacheConfig;
+import com.ecommerce.dto.CursorSlice;
+import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.entity.Category;
+import com.ecommerce.entity.Product;
+import com.ecommerce.outbox.Outbox;
+import com.ecommerce.search.ProductSearchIndex;
+
+@DataJpaTest
+@Import({ ProductService.class, CategoryService.class, CacheConfig.class, Outbox.class, CategoryStatsService.class,
+		PriceHistoryService.class, ProductSearchIndex.class })
+class KeysetPaginationTests {
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private CategoryService categoryService;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@BeforeEach
+	void setUp() {
+		String[] categoryNames = { "toys", "books", "garden", "music", "games" };
+		List<Category> categories = new ArrayList<>();
+		for (String name : categoryNames) {
+			Category category = new Category();
+			category.setName(name);
+			categories.add(entityManager.persist(category));
+		}
+		// Every name and price is shared by several products, so pages must break ties on the id.
+		for (int i = 0; i < 11; i++) {
+			Product product = new Product();
+			product.setName("product-" + (i % 3));
+			product.setPrice(5.0 * (i % 4));
+			product.setQuantity(1);
+			product.setStatus("Available");
+			product.setCategory(categories.get(i % categories.size()));
+			entityManager.persist(product);
+		}
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	@Test
+	void productPagesVisitEveryProductOnceInSortOrder() {
+		List<ProductDTO> all = productService.getAllProducts(0, 100).getContent();
+
+		assertThat(readProducts("id")).extracting(ProductDTO::getId)
+				.containsExactlyElementsOf(sorted(all, Comparator.comparing(ProductDTO::getId)));
+		assertThat(readProducts("name")).extracting(ProductDTO::getId).containsExactlyElementsOf(
+				sorted(all, Comparator.comparing(ProductDTO::getName).thenComparing(ProductDTO::getId)));
+		assertThat(readProducts("price")).extracting(ProductDTO::getId).containsExactlyElementsOf(
+				sorted(all, Comparator.comparing(ProductDTO::getPrice).thenComparing(ProductDTO::getId)));
+	}
+
+	@Test
+	void categoryPagesVisitEveryCategoryOnceInSortOrder() {
+		List<Category> all = categoryService.getAllCategories(0, 100).getContent();
+
+		assertThat(readCategories("id")).extracting(Category::getId)
+				.containsExactlyElementsOf(all.stream().map(Category::getId).sorted().toList());
+		assertThat(readCategories("name")).extracting(Category::getName)
+				.containsExactly("books", "games", "garden", "music", "toys");
+	}
+
+	@Test
+	void theCursorKeepsTheSortItWasIssuedFor() {
+		CursorSlice<ProductDTO> first = productService.getProductsAfter("", 4, "price");
+
+		CursorSlice<ProductDTO> second = productService.getProductsAfter(first.getNextCursor(), 4, "name");
+
+		assertThat(second.getContent()).extracting(ProductDTO::getPrice).isSorted();
+		assertThat(second.getContent().get(0).getPrice())
+				.isGreaterThanOrEqualTo(first.getContent().get(3).getPrice());
+	}
+
+	@Test
+	void lastPageHasNoNextCursor() {
+		CursorSlice<Category> page = categoryService.getCategoriesAfter("", 5, "id");
+
+		assertThat(page.isHasNext()).isFalse();
+		assertThat(page.getNextCursor()).isNull();
+	}
+
+	@Test
+	void malformedOrTamperedCursorsAreRejected() {
+		String[] cursors = { "not base64!", encode("id|1"), encode("id|one|1"), encode("stock|1|1"),
+				encode("price|1|cheap") };
+		for (String cursor : cursors) {
+			assertThatThrownBy(() -> productService.getProductsAfter(cursor, 3, "id"))
+					.as(cursor).isInstanceOf(IllegalArgumentException.class);
+		}
+		assertThatThrownBy(() -> categoryService.getCategoriesAfter(encode("price|1|1"), 3, "id"))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> categoryService.getCategoriesAfter("", 3, "price"))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private List<ProductDTO> readProducts(String sort) {
+		return readAll(after -> productService.getProductsAfter(after, 3, sort));
+	}
+
+	private List<Category> readCategories(String sort) {
+		return readAll(after -> categoryService.getCategoriesAfter(after, 2, sort));
+	}
+
+	private static <T> List<T> readAll(Function<String, CursorSlice<T>> pages) {
+		List<T> items = new ArrayList<>();
+		String after = "";
+		CursorSlice<T> page;
+		do {
+			page = pages.apply(after);
+			items.addAll(page.getContent());
+			after = page.getNextCursor();
+		} while (page.isHasNext());
+		return items;
+	}
+
+	private static List<Long> sorted(List<ProductDTO> products, Comparator<ProductDTO> order) {
+		return products.stream().sorted(order).map(ProductDTO::getId).toList();
+	}
+
+	private static String encode(String raw) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+}
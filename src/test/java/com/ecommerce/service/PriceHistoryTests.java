@@ -0,0 +1,80 @@
+package com.ecommerce.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ecommerce.dto.PriceHistory;
+import com.ecommerce.dto.PricePoint;
+import com.ecommerce.dto.PriceSummary;
+
+@DataJpaTest(properties = "price-history.flush-interval=1h")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(PriceHistoryService.class)
+class PriceHistoryTests {
+
+	@Autowired
+	private PriceHistoryService priceHistory;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void setUp() {
+		priceHistory.record(1L, 10.0, Instant.parse("2025-01-06T09:00:00Z"));
+		priceHistory.record(1L, 12.0, Instant.parse("2025-01-06T15:00:00Z"));
+		priceHistory.flush();
+		// Lands between the day's first and last change, in a later flush.
+		priceHistory.record(1L, 8.0, Instant.parse("2025-01-06T12:00:00Z"));
+		priceHistory.record(1L, 11.0, Instant.parse("2025-01-08T10:00:00Z"));
+		priceHistory.flush();
+	}
+
+	@AfterEach
+	void tearDown() {
+		jdbcTemplate.update("delete from price_history");
+		jdbcTemplate.update("delete from price_history_daily");
+	}
+
+	@Test
+	void summariesAreBuiltFromDailyRollupsAndCarryThePrice() {
+		PriceSummary days = priceHistory.getSummary(1L, LocalDate.parse("2025-01-06"), LocalDate.parse("2025-01-10"), "day");
+		assertThat(days.buckets()).containsExactly(
+				new PriceSummary.Bucket(LocalDate.parse("2025-01-06"), 10.0, 12.0, 8.0, 12.0, 3),
+				new PriceSummary.Bucket(LocalDate.parse("2025-01-07"), 12.0, 12.0, 12.0, 12.0, 0),
+				new PriceSummary.Bucket(LocalDate.parse("2025-01-08"), 12.0, 11.0, 11.0, 12.0, 1),
+				new PriceSummary.Bucket(LocalDate.parse("2025-01-09"), 11.0, 11.0, 11.0, 11.0, 0));
+
+		PriceSummary weeks = priceHistory.getSummary(1L, LocalDate.parse("2025-01-08"), LocalDate.parse("2025-01-13"), "week");
+		assertThat(weeks.buckets()).containsExactly(
+				new PriceSummary.Bucket(LocalDate.parse("2025-01-06"), 10.0, 11.0, 8.0, 12.0, 4));
+
+		PriceSummary months = priceHistory.getSummary(1L, LocalDate.parse("2025-02-01"), LocalDate.parse("2025-03-01"), "month");
+		assertThat(months.buckets()).containsExactly(
+				new PriceSummary.Bucket(LocalDate.parse("2025-02-01"), 11.0, 11.0, 11.0, 11.0, 0));
+	}
+
+	@Test
+	void historyIsReadByTimeRange() {
+		PriceHistory history = priceHistory.getHistory(1L, Instant.parse("2025-01-06T10:00:00Z"),
+				Instant.parse("2025-01-09T00:00:00Z"), 2);
+
+		assertThat(history.openingPrice()).isEqualTo(10.0);
+		assertThat(history.changes()).containsExactly(
+				new PricePoint(Instant.parse("2025-01-06T12:00:00Z"), 8.0),
+				new PricePoint(Instant.parse("2025-01-06T15:00:00Z"), 12.0));
+		assertThat(history.truncated()).isTrue();
+		assertThat(priceHistory.getHistory(999L, Instant.EPOCH, Instant.now(), 10)).isNull();
+	}
+}
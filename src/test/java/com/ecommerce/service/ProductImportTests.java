@@ -0,0 +1,157 @@
+package com.ecommerce.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ecommerce.config.CacheConfig;
+import com.ecommerce.dto.BulkImportResult;
+import com.ecommerce.dto.BulkImportResult.RowError;
+import com.ecommerce.entity.Category;
+import com.ecommerce.entity.Product;
+import com.ecommerce.outbox.Outbox;
+import com.ecommerce.repo.CategoryRepo;
+import com.ecommerce.repo.ProductRepo;
+import com.ecommerce.search.ProductSearchIndex;
+
+// Every batch commits on its own, as it would behind the controller.
+@DataJpaTest
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ ProductImportService.class, ProductService.class, CacheConfig.class, Outbox.class, CategoryStatsService.class,
+		PriceHistoryService.class, ProductSearchIndex.class })
+class ProductImportTests {
+
+	@Autowired
+	private ProductImportService importService;
+
+	@Autowired
+	private ProductRepo productRepo;
+
+	@Autowired
+	private CategoryRepo categoryRepo;
+
+	private Long categoryId;
+
+	@BeforeEach
+	void setUp() {
+		Category category = new Category();
+		category.setName("books");
+		categoryId = categoryRepo.save(category).getId();
+	}
+
+	@AfterEach
+	void tearDown() {
+		ReflectionTestUtils.setField(importService, "batchSize", 1000);
+		productRepo.deleteAll();
+		categoryRepo.deleteAll();
+	}
+
+	@Test
+	void rowsWithAnIdUpdateAndTheOthersInsert() throws Exception {
+		Product existing = new Product();
+		existing.setName("Dune");
+		existing.setPrice(9.99);
+		existing.setQuantity(5);
+		existing.setStatus("Available");
+		existing.setCategory(categoryRepo.findById(categoryId).orElseThrow());
+		Long id = productRepo.save(existing).getId();
+
+		BulkImportResult result = importProducts(
+				row("{\"id\":" + id + ",\"name\":\"Dune (2nd ed.)\"", "12.5"),
+				row("{\"name\":\"Emma\"", "7.0"),
+				row("{\"id\":999999,\"name\":\"Ghost\"", "1.0"));
+
+		assertThat(result.getReceived()).isEqualTo(3);
+		assertThat(result.getInserted()).isEqualTo(1);
+		assertThat(result.getUpdated()).isEqualTo(1);
+		assertThat(result.getErrors()).extracting(RowError::getIndex, RowError::getMessage)
+				.containsExactly(tuple(2, "Product not found with id 999999"));
+		assertThat(productRepo.findById(id).orElseThrow().getPrice()).isEqualTo(12.5);
+		assertThat(productRepo.count()).isEqualTo(2);
+	}
+
+	@Test
+	void updateRowsKeepTheStoredStatusAndNeedNone() throws Exception {
+		Product existing = new Product();
+		existing.setName("Dune");
+		existing.setPrice(9.99);
+		existing.setQuantity(5);
+		existing.setStatus("Out of stock");
+		existing.setCategory(categoryRepo.findById(categoryId).orElseThrow());
+		Long id = productRepo.save(existing).getId();
+
+		BulkImportResult result = importProducts(
+				"{\"id\":" + id + ",\"name\":\"Dune\",\"price\":12.5,\"quantity\":5,\"category\":{\"id\":" + categoryId + "}}",
+				"{\"name\":\"Emma\",\"price\":7.0,\"quantity\":1,\"category\":{\"id\":" + categoryId + "}}");
+
+		assertThat(result.getUpdated()).isEqualTo(1);
+		assertThat(result.getErrors()).extracting(RowError::getIndex, RowError::getMessage)
+				.containsExactly(tuple(1, "status is required"));
+		Product updated = productRepo.findById(id).orElseThrow();
+		assertThat(updated.getPrice()).isEqualTo(12.5);
+		assertThat(updated.getStatus()).isEqualTo("Out of stock");
+	}
+
+	@Test
+	void invalidRowsAreRejectedByIndex() throws Exception {
+		BulkImportResult result = importProducts(
+				"{\"price\":1.0,\"quantity\":1,\"status\":\"Available\",\"category\":{\"id\":" + categoryId + "}}",
+				"{\"name\":\"No category\",\"price\":1.0,\"quantity\":1,\"status\":\"Available\"}",
+				"{\"name\":\"Bad price\",\"price\":\"cheap\",\"quantity\":1,\"status\":\"Available\",\"category\":{\"id\":"
+						+ categoryId + "}}",
+				"{\"name\":\"Lost\",\"price\":1.0,\"quantity\":1,\"status\":\"Available\",\"category\":{\"id\":999999}}",
+				row("{\"name\":\"Emma\"", "7.0"));
+
+		assertThat(result.getReceived()).isEqualTo(5);
+		assertThat(result.getInserted()).isEqualTo(1);
+		assertThat(result.getFailed()).isEqualTo(4);
+		assertThat(result.getErrors()).extracting(RowError::getIndex).containsExactly(0, 1, 2, 3);
+		assertThat(result.getErrors()).extracting(RowError::getMessage).startsWith("name is required",
+				"category.id is required");
+		assertThat(result.getErrors().get(3).getMessage()).isEqualTo("Category not found with id 999999");
+	}
+
+	@Test
+	void aRejectedBatchLeavesTheOtherBatchesWritten() throws Exception {
+		ReflectionTestUtils.setField(importService, "batchSize", 2);
+		String tooLong = "x".repeat(1001);
+
+		BulkImportResult result = importProducts(
+				row("{\"name\":\"A\"", "1.0"),
+				row("{\"name\":\"B\"", "1.0"),
+				row("{\"name\":\"C\",\"description\":\"" + tooLong + "\"", "1.0"),
+				row("{\"name\":\"D\"", "1.0"),
+				row("{\"name\":\"E\"", "1.0"));
+
+		assertThat(result.getInserted()).isEqualTo(3);
+		assertThat(result.getErrors()).extracting(RowError::getIndex).containsExactly(2, 3);
+		assertThat(result.getErrors()).allSatisfy(error -> assertThat(error.getMessage()).startsWith("Batch rejected"));
+		assertThat(productRepo.findAll()).extracting(Product::getName).containsExactlyInAnyOrder("A", "B", "E");
+	}
+
+	private BulkImportResult importProducts(String... ndjsonLines) throws Exception {
+		byte[] body = String.join("\n", ndjsonLines).getBytes(StandardCharsets.UTF_8);
+		return importService.importProducts(new ByteArrayInputStream(body));
+	}
+
+	// Completes a row opened with its name (and id) with a price and the shared defaults.
+	private String row(String start, String price) {
+		return start + ",\"price\":" + price + ",\"quantity\":1,\"status\":\"Available\",\"category\":{\"id\":"
+				+ categoryId + "}}";
+	}
+}
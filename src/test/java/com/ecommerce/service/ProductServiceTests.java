@@ -0,0 +1,169 @@
+package com.ecommerce.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+
+import com.ecommerce.config.CacheConfig;
+import com.ecommerce.dto.CursorSlice;
+import com.ecommerce.dto.ProductBatch;
+import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.dto.ProductFacets;
+import com.ecommerce.dto.ProductFilter;
+import com.ecommerce.entity.Category;
+import com.ecommerce.entity.Product;
+import com.ecommerce.outbox.Outbox;
+import com.ecommerce.search.ProductSearchIndex;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({ ProductService.class, CacheConfig.class, Outbox.class, CategoryStatsService.class, PriceHistoryService.class, ProductSearchIndex.class })
+class ProductServiceTests {
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		for (int c = 0; c < 3; c++) {
+			Category category = new Category();
+			category.setName("category-" + c);
+			entityManager.persist(category);
+			for (int p = 0; p < 4; p++) {
+				Product product = new Product();
+				product.setName("product-" + c + "-" + p);
+				product.setPrice(10.0 * p + c);
+				product.setQuantity(p);
+				product.setStatus("Available");
+				product.setCategory(category);
+				entityManager.persist(product);
+			}
+		}
+		entityManager.flush();
+		entityManager.clear();
+
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	void listPageIssuesOneDataAndOneCountQuery() {
+		Page<ProductDTO> page = productService.getAllProducts(0, 10);
+
+		assertThat(page.getContent()).hasSize(10);
+		assertThat(page.getTotalElements()).isEqualTo(12);
+		assertThat(page.getContent()).allSatisfy(p -> assertThat(p.getCategory().getName()).startsWith("category-"));
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+
+	@Test
+	void productDetailIssuesOneQuery() {
+		Long id = productService.getAllProducts(0, 1).getContent().get(0).getId();
+		statistics.clear();
+
+		ProductDTO product = productService.getProductById(id);
+
+		assertThat(product.getCategory().getName()).isNotNull();
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+		assertThat(productService.getProductById(id)).isSameAs(product);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void multiGetKeepsRequestOrderAndLoadsOnlyCacheMissesInOneQuery() {
+		List<Long> ids = productService.getAllProducts(0, 4).getContent().stream().map(ProductDTO::getId).toList();
+		productService.getProductById(ids.get(1));
+		statistics.clear();
+
+		ProductBatch batch = productService.getProductsByIds(List.of(ids.get(3), ids.get(1), -1L, ids.get(0), ids.get(3)));
+
+		assertThat(batch.products()).extracting(ProductDTO::getId).containsExactly(ids.get(3), ids.get(1), ids.get(0));
+		assertThat(batch.missingIds()).containsExactly(-1L);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+		productService.getProductsByIds(List.of(ids.get(0), ids.get(3)));
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void updateWithStaleVersionIsRejected() {
+		ProductDTO product = productService.getAllProducts(0, 1).getContent().get(0);
+		Product change = new Product();
+		change.setName("renamed");
+		change.setPrice(product.getPrice());
+		change.setQuantity(product.getQuantity());
+		change.setCategory(entityManager.find(Category.class, product.getCategory().getId()));
+
+		assertThatThrownBy(() -> productService.updateProduct(product.getId(), change, product.getVersion() + 1))
+				.isInstanceOf(PreconditionFailedException.class);
+
+		ProductDTO updated = productService.updateProduct(product.getId(), change, product.getVersion());
+		entityManager.flush();
+		assertThat(productService.getProductVersion(product.getId()).etag()).isEqualTo("\"" + (product.getVersion() + 1) + "\"");
+		assertThat(updated.getName()).isEqualTo("renamed");
+	}
+
+	@Test
+	void keysetPagesWalkWholeCatalogWithoutCountQuery() {
+		CursorSlice<ProductDTO> slice = productService.getProductsAfter("", 5, "price");
+		int seen = slice.getContent().size();
+		double lastPrice = slice.getContent().get(seen - 1).getPrice();
+		while (slice.isHasNext()) {
+			slice = productService.getProductsAfter(slice.getNextCursor(), 5, "price");
+			assertThat(slice.getContent().get(0).getPrice()).isGreaterThanOrEqualTo(lastPrice);
+			lastPrice = slice.getContent().get(slice.getContent().size() - 1).getPrice();
+			seen += slice.getContent().size();
+		}
+
+		assertThat(seen).isEqualTo(12);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+	}
+
+	@Test
+	void filteredPageFetchesCategoryWithoutExtraQueries() {
+		ProductFilter filter = new ProductFilter();
+		filter.setMinPrice(10.0);
+		filter.setInStock(true);
+
+		Page<ProductDTO> page = productService.getProducts(filter, 0, 4, "price,desc");
+
+		assertThat(page.getTotalElements()).isEqualTo(9);
+		assertThat(page.getContent()).extracting(ProductDTO::getPrice).containsExactly(32.0, 31.0, 30.0, 22.0);
+		assertThat(page.getContent()).allSatisfy(p -> assertThat(p.getCategory().getName()).startsWith("category-"));
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+
+	@Test
+	void facetsAreComputedInOneQuery() {
+		ProductFilter filter = new ProductFilter();
+		filter.setInStock(true);
+
+		ProductFacets facets = productService.getFacets(filter, 20);
+
+		assertThat(facets.getCategories()).hasSize(3).allSatisfy(c -> assertThat(c.getCount()).isEqualTo(3));
+		assertThat(facets.getStatuses()).containsEntry("Available", 9L);
+		assertThat(facets.getPriceRanges()).extracting(ProductFacets.PriceRange::getCount).containsExactly(3L, 6L);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+}
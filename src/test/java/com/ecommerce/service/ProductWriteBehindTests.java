@@ -0,0 +1,138 @@
+package com.ecommerce.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ecommerce.config.CacheConfig;
+import com.ecommerce.entity.Category;
+import com.ecommerce.entity.Product;
+import com.ecommerce.outbox.Outbox;
+import com.ecommerce.repo.CategoryRepo;
+import com.ecommerce.repo.ProductRepo;
+import com.ecommerce.search.ProductSearchIndex;
+
+@DataJpaTest(properties = { "product.write-behind.enabled=true", "product.write-behind.flush-interval=1h" })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ ProductService.class, ProductWriteBehind.class, CacheConfig.class, Outbox.class, CategoryStatsService.class, PriceHistoryService.class, ProductSearchIndex.class })
+class ProductWriteBehindTests {
+
+	@TempDir
+	static Path journalDir;
+
+	@DynamicPropertySource
+	static void journal(DynamicPropertyRegistry registry) {
+		registry.add("product.write-behind.journal-dir", journalDir::toString);
+	}
+
+	@Autowired
+	private ProductWriteBehind writeBehind;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private ProductRepo productRepo;
+
+	@Autowired
+	private CategoryRepo categoryRepo;
+
+	private Category category;
+
+	private Long productId;
+
+	@BeforeEach
+	void setUp() {
+		category = new Category();
+		category.setName("books");
+		category = categoryRepo.save(category);
+		productId = productRepo.save(product("Dune", 5)).getId();
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		writeBehind.flush();
+		productRepo.deleteAll();
+		categoryRepo.deleteAll();
+	}
+
+	@Test
+	void updatesAreCoalescedAndWrittenInOneFlush() throws IOException {
+		writeBehind.submit(productId, product("Dune, 2nd ed.", 4));
+		writeBehind.submit(productId, product("Dune, 3rd ed.", 3));
+		assertThat(writeBehind.pendingCount()).isEqualTo(1);
+		assertThat(productRepo.findById(productId).get().getName()).isEqualTo("Dune");
+
+		writeBehind.flush();
+
+		Product stored = productRepo.findById(productId).get();
+		assertThat(stored.getName()).isEqualTo("Dune, 3rd ed.");
+		assertThat(stored.getQuantity()).isEqualTo(3);
+		assertThat(stored.getVersion()).isEqualTo(1);
+		assertThat(writeBehind.pendingCount()).isZero();
+	}
+
+	@Test
+	void unflushedUpdatesAreReplayedAfterARestart() throws IOException {
+		writeBehind.submit(productId, product("Dune, 2nd ed.", 4));
+		writeBehind.submit(productId, product("Dune, 3rd ed.", 3));
+
+		// A second instance on the same journal stands in for the restarted application.
+		ProductWriteBehind restarted = new ProductWriteBehind();
+		ReflectionTestUtils.setField(restarted, "productService", productService);
+		ReflectionTestUtils.setField(restarted, "categoryRepo", categoryRepo);
+		ReflectionTestUtils.setField(restarted, "productRepo", productRepo);
+		ReflectionTestUtils.setField(restarted, "journalDir", journalDir);
+		ReflectionTestUtils.setField(restarted, "fsync", true);
+		restarted.recover();
+		assertThat(restarted.pendingCount()).isEqualTo(1);
+		restarted.flush();
+
+		assertThat(productRepo.findById(productId).get().getName()).isEqualTo("Dune, 3rd ed.");
+		try (Stream<Path> segments = Files.list(journalDir)) {
+			assertThat(segments).hasSize(1);
+		}
+	}
+
+	@Test
+	void updatesTheFlushCannotWriteAreRejectedBeforeTheyAreAcknowledged() {
+		Product unnamed = product(null, 4);
+		Product unpriced = product("Dune", 4);
+		unpriced.setPrice(null);
+
+		assertThatThrownBy(() -> writeBehind.submit(productId, unnamed)).isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("name is required");
+		assertThatThrownBy(() -> writeBehind.submit(productId, unpriced)).isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("price is required");
+		assertThatThrownBy(() -> writeBehind.submit(productId + 1, product("Ghost", 1)))
+				.isInstanceOf(ProductService.ResourceNotFoundException.class);
+		assertThat(writeBehind.pendingCount()).isZero();
+	}
+
+	private Product product(String name, int quantity) {
+		Product product = new Product();
+		product.setName(name);
+		product.setPrice(9.99);
+		product.setQuantity(quantity);
+		product.setStatus("Available");
+		product.setCategory(category);
+		return product;
+	}
+}
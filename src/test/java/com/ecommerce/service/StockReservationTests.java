@@ -0,0 +1,150 @@
+package com.ecommerce.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ecommerce.config.CacheConfig;
+import com.ecommerce.dto.StockReservation;
+import com.ecommerce.entity.Category;
+import com.ecommerce.entity.Product;
+import com.ecommerce.outbox.Outbox;
+import com.ecommerce.repo.CategoryRepo;
+import com.ecommerce.repo.ProductRepo;
+import com.ecommerce.search.ProductSearchIndex;
+
+// Every reservation commits on its own, as it would behind the controller.
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ ProductService.class, CacheConfig.class, Outbox.class, CategoryStatsService.class, PriceHistoryService.class, ProductSearchIndex.class })
+class StockReservationTests {
+
+	private static final int STOCK = 1000;
+	private static final int THREADS = 16;
+	private static final int ATTEMPTS = 2500;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private ProductRepo productRepo;
+
+	@Autowired
+	private CategoryRepo categoryRepo;
+
+	private Long hotId;
+	private Long otherId;
+
+	@BeforeEach
+	void setUp() {
+		Category category = new Category();
+		category.setName("flash-sale");
+		category = categoryRepo.save(category);
+		hotId = productRepo.save(product("hot", STOCK, category)).getId();
+		otherId = productRepo.save(product("other", 1, category)).getId();
+	}
+
+	@AfterEach
+	void tearDown() {
+		productRepo.deleteAll();
+		categoryRepo.deleteAll();
+	}
+
+	@Test
+	void concurrentReservationsNeverOversell() throws Exception {
+		assertThat(reserveConcurrently()).isEqualTo(STOCK);
+		assertThat(productRepo.findById(hotId).orElseThrow().getQuantity()).isZero();
+	}
+
+	@Test
+	void leasedReservationsNeverOversellAndReturnUnusedStock() throws Exception {
+		ReflectionTestUtils.setField(productService, "leaseSize", 64);
+		try {
+			assertThat(reserveConcurrently()).isEqualTo(STOCK);
+			productService.returnUnusedLeases();
+			assertThat(productRepo.findById(hotId).orElseThrow().getQuantity()).isZero();
+		} finally {
+			ReflectionTestUtils.setField(productService, "leaseSize", 0);
+		}
+	}
+
+	@Test
+	void failedUpdateKeepsLeasedStock() {
+		ReflectionTestUtils.setField(productService, "leaseSize", 64);
+		try {
+			productService.reserveStock(hotId, 1);
+			Product update = product("hot", 500, new Category());
+			update.getCategory().setId(-1L);
+
+			assertThatThrownBy(() -> productService.updateProduct(hotId, update, null)).isInstanceOf(RuntimeException.class);
+			productService.returnUnusedLeases();
+			assertThat(productRepo.findById(hotId).orElseThrow().getQuantity()).isEqualTo(STOCK - 1);
+		} finally {
+			ReflectionTestUtils.setField(productService, "leaseSize", 0);
+		}
+	}
+
+	@Test
+	void cartReservationIsAllOrNothing() {
+		List<StockReservation> cart = List.of(new StockReservation(hotId, 5), new StockReservation(otherId, 2));
+
+		assertThatThrownBy(() -> productService.reserveStock(cart)).isInstanceOf(InsufficientStockException.class);
+		assertThat(productRepo.findById(hotId).orElseThrow().getQuantity()).isEqualTo(STOCK);
+
+		productService.reserveStock(List.of(new StockReservation(hotId, 5), new StockReservation(otherId, 1)));
+		assertThat(productRepo.findById(hotId).orElseThrow().getQuantity()).isEqualTo(STOCK - 5);
+		assertThat(productRepo.findById(otherId).orElseThrow().getQuantity()).isZero();
+	}
+
+	private int reserveConcurrently() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Callable<Boolean>> attempts = new ArrayList<>();
+			for (int i = 0; i < ATTEMPTS; i++) {
+				attempts.add(() -> {
+					try {
+						productService.reserveStock(hotId, 1);
+						return true;
+					} catch (InsufficientStockException e) {
+						return false;
+					}
+				});
+			}
+			int reserved = 0;
+			for (Future<Boolean> result : executor.invokeAll(attempts)) {
+				if (result.get()) {
+					reserved++;
+				}
+			}
+			return reserved;
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private static Product product(String name, int quantity, Category category) {
+		Product product = new Product();
+		product.setName(name);
+		product.setPrice(10.0);
+		product.setQuantity(quantity);
+		product.setStatus("Available");
+		product.setCategory(category);
+		return product;
+	}
+}
@@ -0,0 +1,18 @@
+create table if not exists categories (
+    id bigint auto_increment primary key,
+    name varchar(255) not null unique,
+    version bigint not null,
+    updated_at timestamp(6) with time zone
+);
+
+create table if not exists product (
+    id bigint auto_increment primary key,
+    name varchar(255) not null,
+    description varchar(1000),
+    price double precision not null,
+    status varchar(255) not null,
+    quantity integer not null,
+    category_id bigint references categories (id),
+    version bigint not null,
+    updated_at timestamp(6) with time zone
+);